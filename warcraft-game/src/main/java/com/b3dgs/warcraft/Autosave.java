@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Tick;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.io.FileReading;
+import com.b3dgs.lionengine.io.FileWriting;
+import com.b3dgs.warcraft.constant.Extension;
+import com.b3dgs.warcraft.constant.Folder;
+
+/**
+ * Save world periodically without stalling the game thread.
+ * <p>
+ * On update, once delay elapsed, world state is copied in a {@link WorldCapture}, which is the only part done on the
+ * game thread. Capture is then serialized, compressed and written on a background thread, in the next slot of a
+ * rotating set of files. A save is skipped while the previous one is still being written.
+ * </p>
+ * <p>
+ * A slot is read back with {@link #read(Media)}, and restored over the level map. Background thread is stopped with
+ * {@link #close()} when world ends.
+ * </p>
+ */
+final class Autosave implements Updatable
+{
+    /** Slot file prefix. */
+    private static final String FILE_PREFIX = "autosave";
+    /** Pending write timeout in second on close. */
+    private static final long CLOSE_TIMEOUT = 5L;
+    /** Saving error. */
+    private static final String ERROR_SAVING = "Error on autosave !";
+    /** Invalid slot error. */
+    private static final String ERROR_SLOT = "Invalid autosave: ";
+    /** Close interrupted error. */
+    private static final String ERROR_CLOSE = "Autosave interrupted on close !";
+
+    /**
+     * Decompress and read capture from slot.
+     * 
+     * @param slot The slot file.
+     * @return The read capture.
+     * @throws IOException If error on reading.
+     */
+    static WorldCapture read(Media slot) throws IOException
+    {
+        try (FileReading file = new FileReading(new GZIPInputStream(new BufferedInputStream(slot.getInputStream()))))
+        {
+            final WorldCapture capture = WorldCapture.read(file);
+            if (capture == null)
+            {
+                throw new IOException(ERROR_SLOT + slot);
+            }
+            return capture;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable ->
+    {
+        final Thread thread = new Thread(runnable, Autosave.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final Tick tick = new Tick();
+    private final World world;
+    private final long delay;
+    private final Media[] slots;
+
+    private int next;
+
+    /**
+     * Create autosave.
+     * 
+     * @param world The world to save.
+     * @param delay The delay between two saves in tick (strictly positive).
+     * @param count The number of rotating slots (strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    Autosave(World world, int delay, int count)
+    {
+        super();
+
+        Check.superiorStrict(delay, 0);
+        Check.superiorStrict(count, 0);
+
+        this.world = world;
+        this.delay = delay;
+        slots = new Media[count];
+        for (int i = 0; i < count; i++)
+        {
+            slots[i] = Medias.create(Folder.SAVES, FILE_PREFIX + i + Extension.SAVE);
+        }
+        tick.start();
+    }
+
+    /**
+     * Stop background thread, waiting for pending write.
+     */
+    void close()
+    {
+        executor.shutdown();
+        try
+        {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS))
+            {
+                executor.shutdownNow();
+            }
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            Verbose.exception(exception, ERROR_CLOSE);
+        }
+    }
+
+    /**
+     * Capture world and write it in background.
+     */
+    private void save()
+    {
+        final WorldCapture capture = world.capture();
+        final Media slot = slots[next];
+        next = (next + 1) % slots.length;
+
+        writing.set(true);
+        executor.execute(() -> write(slot, capture));
+    }
+
+    /**
+     * Serialize, compress and write capture to slot.
+     * 
+     * @param slot The slot file.
+     * @param capture The world capture.
+     */
+    private void write(Media slot, WorldCapture capture)
+    {
+        try (FileWriting file = new FileWriting(new GZIPOutputStream(slot.getOutputStream())))
+        {
+            capture.write(file);
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, ERROR_SAVING);
+        }
+        finally
+        {
+            writing.set(false);
+        }
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        tick.update(extrp);
+        if (tick.elapsed(delay) && !writing.get() && !executor.isShutdown())
+        {
+            tick.restart();
+            save();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.game.feature.SequenceGame;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.warcraft.constant.Constant;
+
+/**
+ * World stepped with a fixed extrapolation, headless as fast as possible, or rendered with a bounded count of steps per
+ * sequence update.
+ * <p>
+ * Used by {@link Simulation} and {@link Replay}, which only tell when stepping ends.
+ * </p>
+ */
+public abstract class FixedStepGame extends SequenceGame
+{
+    /** Fixed step extrapolation. */
+    private static final double STEP = 1.0;
+    /** Maximum steps per sequence update. */
+    private static final int STEPS_PER_UPDATE = 1000;
+
+    private final int steps;
+    private final boolean rendered;
+    private long frame;
+
+    /**
+     * Create the headless game.
+     * 
+     * @param context The context reference.
+     * @param seed The world seed.
+     */
+    protected FixedStepGame(Context context, long seed)
+    {
+        this(context, seed, STEPS_PER_UPDATE, false);
+    }
+
+    /**
+     * Create the game.
+     * 
+     * @param context The context reference.
+     * @param seed The world seed.
+     * @param steps The steps per sequence update.
+     * @param rendered <code>true</code> to render world, <code>false</code> if headless.
+     */
+    protected FixedStepGame(Context context, long seed, int steps, boolean rendered)
+    {
+        super(context, Constant.NATIVE, services -> new World(services, seed, false));
+
+        this.steps = steps;
+        this.rendered = rendered;
+    }
+
+    /**
+     * Load the game level, imported first if missing.
+     */
+    protected void loadLevel()
+    {
+        if (!Scene.LEVEL.getFile().exists())
+        {
+            Scene.importLevelAndSave(Scene.LEVEL);
+        }
+        world.loadFromFile(Scene.LEVEL.getFile());
+    }
+
+    /**
+     * Get the stepped frames.
+     * 
+     * @return The stepped frames.
+     */
+    protected long getFrame()
+    {
+        return frame;
+    }
+
+    /**
+     * Check if world has to be stepped again.
+     * 
+     * @return <code>true</code> if stepping, <code>false</code> if ended.
+     */
+    protected abstract boolean isStepping();
+
+    /**
+     * Called once stepping ended, before sequence end.
+     */
+    protected abstract void onStepped();
+
+    @Override
+    public void update(double extrp)
+    {
+        for (int i = 0; i < steps && isStepping(); i++)
+        {
+            world.update(STEP);
+            frame++;
+        }
+        if (!isStepping())
+        {
+            onStepped();
+            end();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Renders only if requested.
+     */
+    @Override
+    public void render(Graphic g)
+    {
+        if (rendered)
+        {
+            super.render(g);
+        }
+    }
+}
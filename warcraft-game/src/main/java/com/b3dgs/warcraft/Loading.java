@@ -19,13 +19,13 @@ package com.b3dgs.warcraft;
 import com.b3dgs.lionengine.Context;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Origin;
+import com.b3dgs.lionengine.game.Bar;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.Image;
 import com.b3dgs.lionengine.graphic.engine.Sequence;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Folder;
-import com.b3dgs.warcraft.constant.Gfx;
 
 /**
  * Loading screen.
@@ -33,10 +33,15 @@ import com.b3dgs.warcraft.constant.Gfx;
 public final class Loading extends Sequence
 {
     private static final String IMG_LOADING = "blizzard.png";
+    private static final int BAR_WIDTH = 200;
+    private static final int BAR_HEIGHT = 4;
+    private static final int BAR_MARGIN = 12;
 
     private final Image background = Drawable.loadImage(Medias.create(Folder.MENU, IMG_LOADING));
+    private final Bar bar = new Bar(BAR_WIDTH, BAR_HEIGHT);
 
-    private boolean loaded;
+    private final Boolean record;
+    private Preloader preloader;
 
     /**
      * Constructor.
@@ -44,9 +49,22 @@ public final class Loading extends Sequence
      * @param context The context reference.
      */
     public Loading(Context context)
+    {
+        this(context, Boolean.FALSE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     * @param record <code>true</code> to record player orders, <code>false</code> else.
+     */
+    public Loading(Context context, Boolean record)
     {
         super(context, Constant.NATIVE);
 
+        this.record = record;
+
         setSystemCursorVisible(false);
     }
 
@@ -57,32 +75,37 @@ public final class Loading extends Sequence
         background.prepare();
         background.setOrigin(Origin.MIDDLE);
         background.setLocation(getWidth() / 2.0, getHeight() / 2.0);
+
+        bar.setColorForeground(Constant.COLOR_VIEW);
+        bar.setLocation((getWidth() - BAR_WIDTH) / 2, getHeight() - BAR_MARGIN);
+        bar.setWidthPercent(0);
+
+        preloader = new Preloader(Scene.LEVEL);
+        preloader.start();
     }
 
     @Override
     public void update(double extrp)
     {
-        if (loaded)
+        bar.setWidthPercent(preloader.getProgress());
+        preloader.check();
+        if (preloader.isLoaded())
         {
-            for (final Gfx gfx : Gfx.values())
-            {
-                gfx.get().load();
-            }
-            end(Scene.class);
+            end(Scene.class, record);
         }
-        loaded = true;
     }
 
     @Override
     public void render(Graphic g)
     {
         background.render(g);
+        bar.render(g);
     }
 
     @Override
     public void onTerminated(boolean hasNextSequence)
     {
         background.dispose();
-        loaded = false;
+        preloader = null;
     }
 }
@@ -33,6 +33,9 @@ import com.b3dgs.warcraft.object.feature.EntityStats;
  */
 public final class Player implements Updatable
 {
+    /** Stock values count: wood, gold, available food and consumed food. */
+    static final int STOCK_COUNT = 4;
+
     /**
      * Curve resource value.
      * 
@@ -302,6 +305,53 @@ public final class Player implements Updatable
         return unlocked.contains(value);
     }
 
+    /**
+     * Get the stored resources and food, not the displayed ones still counting.
+     * 
+     * @return The wood, gold, available food and consumed food.
+     */
+    int[] getStock()
+    {
+        return new int[]
+        {
+            wood.getCurrent(), gold.getCurrent(), available.getCurrent(), consumed.getCurrent()
+        };
+    }
+
+    /**
+     * Get the unlocked values.
+     * 
+     * @return The unlocked values copy.
+     */
+    String[] getUnlocked()
+    {
+        return unlocked.toArray(new String[unlocked.size()]);
+    }
+
+    /**
+     * Restore stored resources, food and unlocked values.
+     * 
+     * @param stock The wood, gold, available food and consumed food.
+     * @param values The unlocked values.
+     */
+    void restore(int[] stock, String[] values)
+    {
+        wood.set(stock[0]);
+        gold.set(stock[1]);
+        available.set(stock[2]);
+        consumed.set(stock[3]);
+        unlocked.clear();
+        for (final String value : values)
+        {
+            unlocked.add(value);
+        }
+
+        currentWood = wood.getCurrent();
+        currentGold = gold.getCurrent();
+        updaterWood = UpdatableVoid.getInstance();
+        updaterGold = UpdatableVoid.getInstance();
+    }
+
     @Override
     public void update(double extrp)
     {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.warcraft.constant.Gfx;
+import com.b3dgs.warcraft.object.Prototypes;
+import com.b3dgs.warcraft.object.SurfaceCache;
+
+/**
+ * Load game resources in parallel, on a worker pool.
+ * <p>
+ * Tasks are the {@link Gfx} images, each {@link Sfx} sound, each race entity prototype with its sheet and icon, and
+ * the level import when its data file is missing. Progress is the ratio of ended tasks.
+ * </p>
+ * <p>
+ * A failing task is retried, then reported by {@link #check()} so the game never starts with missing resources.
+ * </p>
+ */
+final class Preloader
+{
+    private static final String ERROR_LOAD = "Unable to load resources !";
+    private static final int ATTEMPTS = 2;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final AtomicInteger ended = new AtomicInteger();
+    private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+
+    /**
+     * Create preloader.
+     * 
+     * @param level The level to play.
+     */
+    Preloader(Level level)
+    {
+        super();
+
+        for (final Gfx gfx : Gfx.values())
+        {
+            tasks.add(() -> gfx.get().load());
+        }
+        for (final Sfx sfx : Sfx.values())
+        {
+            tasks.add(sfx::load);
+        }
+        for (final Race race : Race.values())
+        {
+            for (final Unit unit : Unit.values())
+            {
+                final Media media = race.get(unit);
+                if (media.exists())
+                {
+                    tasks.add(() ->
+                    {
+                        final Setup setup = new Setup(media);
+                        Prototypes.get(setup);
+                        SurfaceCache.preload(setup);
+                    });
+                }
+            }
+        }
+        if (!level.getFile().exists())
+        {
+            tasks.add(() -> Scene.importLevelAndSave(level));
+        }
+    }
+
+    /**
+     * Start loading, workers being released once all tasks ended.
+     */
+    void start()
+    {
+        final int workers = Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+        final ExecutorService executor = Executors.newFixedThreadPool(workers, runnable ->
+        {
+            final Thread thread = new Thread(runnable, Preloader.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (final Runnable task : tasks)
+        {
+            executor.execute(() ->
+            {
+                try
+                {
+                    run(task);
+                }
+                finally
+                {
+                    ended.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Check that no task failed.
+     * 
+     * @throws LionEngineException If a task failed after all its attempts.
+     */
+    void check()
+    {
+        final RuntimeException exception = error.get();
+        if (exception != null)
+        {
+            throw new LionEngineException(exception, ERROR_LOAD);
+        }
+    }
+
+    /**
+     * Get the loading progress.
+     * 
+     * @return The progress percent.
+     */
+    int getProgress()
+    {
+        return ended.get() * 100 / tasks.size();
+    }
+
+    /**
+     * Check if all tasks ended.
+     * 
+     * @return <code>true</code> if loaded, <code>false</code> else.
+     */
+    boolean isLoaded()
+    {
+        return ended.get() == tasks.size();
+    }
+
+    /**
+     * Run task, retrying it on failure, and keep its error if all attempts failed.
+     * 
+     * @param task The task to run.
+     */
+    private void run(Runnable task)
+    {
+        for (int attempt = 1; attempt <= ATTEMPTS; attempt++)
+        {
+            try
+            {
+                task.run();
+                return;
+            }
+            catch (final RuntimeException exception)
+            {
+                Verbose.exception(exception);
+                if (attempt == ATTEMPTS)
+                {
+                    error.compareAndSet(null, exception);
+                }
+            }
+        }
+    }
+}
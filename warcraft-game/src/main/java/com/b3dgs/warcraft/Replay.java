@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.warcraft.world.CommandLog;
+
+/**
+ * Replay implementation.
+ * <p>
+ * World is created with the recorded seed and stepped as a {@link FixedStepGame}, applying recorded orders on their
+ * frame, until the recorded session end. Replay is headless and as fast as possible, or rendered at a speed up to
+ * {@value #SPEED_MAX} steps per frame.
+ * </p>
+ */
+public class Replay extends FixedStepGame
+{
+    /** Maximum rendered speed, in steps per frame. */
+    private static final int SPEED_MAX = 50;
+    /** Replay summary. */
+    private static final String INFO_REPLAYED = "Replayed %d frames";
+
+    /**
+     * Read the recorded seed.
+     * 
+     * @param log The recorded log.
+     * @return The world seed.
+     * @throws LionEngineException If invalid log.
+     */
+    private static long readSeed(Media log)
+    {
+        try
+        {
+            return CommandLog.readSeed(log);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, log);
+        }
+    }
+
+    private final Media log;
+
+    /**
+     * Create the headless replay.
+     * 
+     * @param context The context reference.
+     * @param log The recorded log.
+     * @throws LionEngineException If invalid log.
+     */
+    public Replay(Context context, Media log)
+    {
+        super(context, readSeed(log));
+
+        this.log = log;
+    }
+
+    /**
+     * Create the rendered replay.
+     * 
+     * @param context The context reference.
+     * @param log The recorded log.
+     * @param speed The replay speed in steps per frame (clamped between 1 and {@value #SPEED_MAX}).
+     * @throws LionEngineException If invalid log.
+     */
+    public Replay(Context context, Media log, Integer speed)
+    {
+        super(context, readSeed(log), UtilMath.clamp(speed.intValue(), 1, SPEED_MAX), true);
+
+        this.log = log;
+    }
+
+    @Override
+    public void load()
+    {
+        loadLevel();
+        try
+        {
+            ((World) world).replay(log);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, log);
+        }
+    }
+
+    @Override
+    protected boolean isStepping()
+    {
+        return ((World) world).isReplaying();
+    }
+
+    @Override
+    protected void onStepped()
+    {
+        Verbose.info(String.format(INFO_REPLAYED, Long.valueOf(getFrame())));
+    }
+}
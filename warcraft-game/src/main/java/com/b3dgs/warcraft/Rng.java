@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.util.Random;
+
+/**
+ * World random numbers, from a single seed.
+ * <p>
+ * Simulation stream drives game rules, such as damages, so the same seed with the same inputs always gives the same
+ * game. Presentation stream is used for what is only seen or heard, such as sounds, so it never shifts the simulation
+ * one.
+ * </p>
+ */
+public class Rng
+{
+    /** Presentation stream seed mix. */
+    private static final long PRESENTATION_MIX = 0x9E37_79B9_7F4A_7C15L;
+
+    private final Random simulation;
+    private final Random presentation;
+    private final long seed;
+
+    /**
+     * Create random numbers.
+     * 
+     * @param seed The world seed.
+     */
+    public Rng(long seed)
+    {
+        super();
+
+        this.seed = seed;
+        simulation = new Random(seed);
+        presentation = new Random(seed ^ PRESENTATION_MIX);
+    }
+
+    /**
+     * Get the world seed.
+     * 
+     * @return The seed.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Get a simulation random value.
+     * 
+     * @param min The minimum value.
+     * @param max The maximum value (included).
+     * @return The random value.
+     */
+    public int getSimulationInteger(int min, int max)
+    {
+        return min + simulation.nextInt(max - min + 1);
+    }
+
+    /**
+     * Get a presentation random value.
+     * 
+     * @param max The maximum value (included).
+     * @return The random value between 0 and max.
+     */
+    public int getPresentationInteger(int max)
+    {
+        return presentation.nextInt(max + 1);
+    }
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 
 import com.b3dgs.lionengine.Align;
 import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.game.feature.Factory;
 import com.b3dgs.lionengine.game.feature.Handler;
@@ -36,6 +37,8 @@ import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.Text;
 import com.b3dgs.lionengine.io.FileWriting;
 import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.constant.Extension;
+import com.b3dgs.warcraft.constant.Folder;
 
 /**
  * Game scene implementation.
@@ -49,6 +52,10 @@ public class Scene extends SequenceGame
                                          + com.b3dgs.lionengine.Constant.SPACE
                                          + com.b3dgs.lionengine.Constant.ENGINE_VERSION;
     private static final String ERROR_SAVING_MAP = "Error on saving map !";
+    private static final String FILE_SESSION = "session";
+
+    /** Played level. */
+    static final Level LEVEL = Level.FOREST;
 
     /**
      * Set text data.
@@ -72,7 +79,7 @@ public class Scene extends SequenceGame
      * 
      * @param level The level to import.
      */
-    private static void importLevelAndSave(Level level)
+    static void importLevelAndSave(Level level)
     {
         final Services services = new Services();
         services.add(new Factory(services));
@@ -96,17 +103,20 @@ public class Scene extends SequenceGame
 
     private final Text textName = Graphics.createText(9);
     private final Text textEngine = Graphics.createText(9);
-    private final Level level = Level.FOREST;
+    private final boolean record;
 
     /**
      * Create the scene.
      * 
      * @param context The context reference.
+     * @param record <code>true</code> to record player orders, <code>false</code> else.
      */
-    public Scene(Context context)
+    public Scene(Context context, Boolean record)
     {
         super(context, Constant.NATIVE, World::new);
 
+        this.record = record.booleanValue();
+
         setText(textEngine, ENGINE, 72, getHeight() - textEngine.getSize() - 11, Align.LEFT);
         setText(textName, NAME, getWidth() - 8, getHeight() - textName.getSize() - 11, Align.RIGHT);
     }
@@ -114,11 +124,15 @@ public class Scene extends SequenceGame
     @Override
     public void load()
     {
-        if (!level.getFile().exists())
+        if (!LEVEL.getFile().exists())
         {
-            importLevelAndSave(level);
+            importLevelAndSave(LEVEL);
+        }
+        world.loadFromFile(LEVEL.getFile());
+        if (record)
+        {
+            ((World) world).record(Medias.create(Folder.SAVES, FILE_SESSION + Extension.REPLAY));
         }
-        world.loadFromFile(level.getFile());
     }
 
     @Override
@@ -129,4 +143,12 @@ public class Scene extends SequenceGame
         textEngine.render(g);
         textName.render(g);
     }
+
+    @Override
+    public void onTerminated(boolean hasNextSequence)
+    {
+        super.onTerminated(hasNextSequence);
+
+        ((World) world).terminate();
+    }
 }
@@ -25,11 +25,9 @@ import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
-import com.b3dgs.lionengine.UtilRandom;
-import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.audio.Audio;
 import com.b3dgs.lionengine.audio.AudioFactory;
-import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.Configurer;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Extension;
 import com.b3dgs.warcraft.constant.Folder;
@@ -115,48 +113,34 @@ public enum Sfx
 
     /** Node sfx name. */
     public static final String NODE_SFX = "sfx";
+    /** Started attribute name. */
+    public static final String ATT_STARTED = "started";
+    /** Produced attribute name. */
+    public static final String ATT_PRODUCED = "produced";
+    /** Selected attribute name. */
+    public static final String ATT_SELECTED = "selected";
+    /** Ordered attribute name. */
+    public static final String ATT_ORDERED = "ordered";
+    /** Attacked attribute name. */
+    public static final String ATT_ATTACKED = "attacked";
     /** Dead attribute name. */
     public static final String ATT_DEAD = "dead";
 
-    /**
-     * Cache sfx.
-     */
-    public static void cache()
-    {
-        for (final Sfx sfx : Sfx.values())
-        {
-            sfx.audio.setVolume(0);
-            sfx.play();
-        }
-        try
-        {
-            Thread.sleep(com.b3dgs.lionengine.Constant.HUNDRED / 2);
-        }
-        catch (final InterruptedException exception)
-        {
-            Verbose.exception(exception);
-        }
-        for (final Sfx sfx : Sfx.values())
-        {
-            sfx.audio.stop();
-        }
-    }
-
     /**
      * Load sfx.
      * 
-     * @param setup The setup reference.
+     * @param configurer The configurer reference.
      * @param attribute The attribute name.
      * @return The loaded sfx, <code>null</code> if none.
      * @throws LionEngineException If invalid configuration.
      */
-    public static List<Sfx> load(Setup setup, String attribute)
+    public static List<Sfx> load(Configurer configurer, String attribute)
     {
-        if (setup.hasNode(NODE_SFX))
+        if (configurer.hasNode(NODE_SFX))
         {
-            if (setup.getRoot().getChild(NODE_SFX).hasAttribute(attribute))
+            if (configurer.getRoot().getChild(NODE_SFX).hasAttribute(attribute))
             {
-                final String[] attributes = setup.getString(attribute, NODE_SFX).split(Constant.SFX_SEPARATOR);
+                final String[] attributes = configurer.getString(attribute, NODE_SFX).split(Constant.SFX_SEPARATOR);
                 final List<Sfx> sfx = new ArrayList<>();
                 for (final String current : attributes)
                 {
@@ -169,21 +153,24 @@ public enum Sfx
     }
 
     /**
-     * Play a random sound.
+     * Play a random sound, chosen from the presentation stream.
      * 
+     * @param rng The random numbers.
      * @param sfx The random sounds.
      */
-    public static void playRandom(List<Sfx> sfx)
+    public static void playRandom(Rng rng, List<Sfx> sfx)
     {
         if (!sfx.isEmpty())
         {
-            final int id = UtilRandom.getRandomInteger(sfx.size() - 1);
+            final int id = rng.getPresentationInteger(sfx.size() - 1);
             sfx.get(id).play();
         }
     }
 
-    /** Audio handler. */
-    private final Audio audio;
+    /** Sound media. */
+    private final Media media;
+    /** Audio handler, <code>null</code> until loaded. */
+    private volatile Audio audio;
 
     /**
      * Create Sfx.
@@ -198,8 +185,22 @@ public enum Sfx
         final String folder = race.name().toLowerCase(Locale.ENGLISH);
         final String file = name().toLowerCase(Locale.ENGLISH) + Extension.SFX;
         final String name = file.substring(file.indexOf(com.b3dgs.lionengine.Constant.UNDERSCORE) + 1);
-        final Media media = Medias.create(Folder.SOUNDS, folder, name);
-        audio = AudioFactory.loadAudio(media);
+        media = Medias.create(Folder.SOUNDS, folder, name);
+    }
+
+    /**
+     * Load sound if not already loaded, from any thread.
+     * <p>
+     * Sounds are independent, so each one is loaded by its own preload task. A sound not loaded yet is loaded on first
+     * play.
+     * </p>
+     */
+    public synchronized void load()
+    {
+        if (audio == null)
+        {
+            audio = AudioFactory.loadAudio(media);
+        }
     }
 
     /**
@@ -207,6 +208,10 @@ public enum Sfx
      */
     public void play()
     {
+        if (audio == null)
+        {
+            load();
+        }
         audio.setVolume(Constant.VOLUME_DEFAULT);
         audio.play();
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.warcraft.constant.Constant;
+
+/**
+ * Headless simulation implementation.
+ * <p>
+ * World is stepped as a {@link FixedStepGame} for the requested duration of game time.
+ * </p>
+ */
+public class Simulation extends FixedStepGame
+{
+    /** Seconds per minute. */
+    private static final int MINUTE = 60;
+    /** Simulation seed, for reproducible runs. */
+    private static final long SEED = 0L;
+    /** Simulation summary. */
+    private static final String INFO_SIMULATED = "Simulated %d frames in %d ms (x%d)";
+
+    private final Media save;
+    private final long frames;
+
+    private long start;
+
+    /**
+     * Create the simulation.
+     * 
+     * @param context The context reference.
+     * @param minutes The simulated duration in minutes of game time.
+     */
+    public Simulation(Context context, Integer minutes)
+    {
+        this(context, minutes, null);
+    }
+
+    /**
+     * Create the simulation resumed from an autosave.
+     * 
+     * @param context The context reference.
+     * @param minutes The simulated duration in minutes of game time.
+     * @param save The autosave to restore, <code>null</code> to start from level.
+     */
+    public Simulation(Context context, Integer minutes, Media save)
+    {
+        super(context, SEED);
+
+        this.save = save;
+        frames = minutes.longValue() * MINUTE * Constant.NATIVE.getRate();
+    }
+
+    @Override
+    public void load()
+    {
+        if (save != null)
+        {
+            try
+            {
+                ((World) world).restore(save);
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, save);
+            }
+        }
+        loadLevel();
+        start = System.currentTimeMillis();
+    }
+
+    @Override
+    protected boolean isStepping()
+    {
+        return getFrame() < frames;
+    }
+
+    @Override
+    protected void onStepped()
+    {
+        final long elapsed = Math.max(1L, System.currentTimeMillis() - start);
+        final long played = frames * com.b3dgs.lionengine.Constant.THOUSAND / Constant.NATIVE.getRate();
+        Verbose.info(String.format(INFO_SIMULATED,
+                                   Long.valueOf(frames),
+                                   Long.valueOf(elapsed),
+                                   Long.valueOf(played / elapsed)));
+    }
+}
@@ -20,8 +20,8 @@ import java.io.IOException;
 
 import com.b3dgs.lionengine.Align;
 import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
-import com.b3dgs.lionengine.Tick;
 import com.b3dgs.lionengine.audio.Audio;
 import com.b3dgs.lionengine.audio.AudioFactory;
 import com.b3dgs.lionengine.game.Cursor;
@@ -49,8 +49,21 @@ import com.b3dgs.lionengine.io.FileWriting;
 import com.b3dgs.lionengine.io.InputDevicePointer;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Gfx;
+import com.b3dgs.warcraft.object.EntityUpdater;
+import com.b3dgs.warcraft.object.FeaturablePool;
+import com.b3dgs.warcraft.object.SurfaceCache;
 import com.b3dgs.warcraft.object.feature.AutoAttack;
+import com.b3dgs.warcraft.object.feature.EntityStats;
 import com.b3dgs.warcraft.object.feature.Warehouse;
+import com.b3dgs.warcraft.world.CommandLog;
+import com.b3dgs.warcraft.world.EntityIndex;
+import com.b3dgs.warcraft.world.FieldOfView;
+import com.b3dgs.warcraft.world.PathQueue;
+import com.b3dgs.warcraft.world.ScanQueue;
+import com.b3dgs.warcraft.world.Timer;
+import com.b3dgs.warcraft.world.TimerWheel;
+import com.b3dgs.warcraft.world.ViewCulling;
+import com.b3dgs.warcraft.world.WarehouseRegistry;
 import com.b3dgs.warcraft.world.WorldMap;
 import com.b3dgs.warcraft.world.WorldMinimap;
 import com.b3dgs.warcraft.world.WorldNavigator;
@@ -74,6 +87,8 @@ public class World extends WorldGame
     private final Player player = services.add(new Player(Race.ORC));
     private final WorldMap worldMap = new WorldMap(services);
     private final MapTile map = services.get(MapTile.class);
+    private final PathQueue paths = services.add(new PathQueue(services));
+    private final FieldOfView fieldOfView = services.get(FieldOfView.class);
     private final WorldMinimap minimap = new WorldMinimap(services);
     private final Cursor cursor = services.create(Cursor.class);
     private final Image wood = Util.getImage(Gfx.HUD_WOOD, RESOURCES_WOOD_X + 10, RESOURCES_Y - 2);
@@ -82,20 +97,59 @@ public class World extends WorldGame
     private final WorldNavigator navigator;
     private final WorldSelection selection;
     private final InputDevicePointer pointer = services.add(getInputDevice(InputDevicePointer.class));
-    private final Tick tick = new Tick();
+    private final ViewCulling culling;
+    private final WorldSnapshot snapshot;
+    private final CommandLog commands;
+    private final ScanQueue scans;
+    private final TimerWheel timers;
+    private final FeaturablePool pool;
+    private final Autosave autosave;
 
     private Audio music;
+    private Producer aiBarracks;
+    private Timer aiAttack;
+    private WorldCapture restoring;
 
     /**
-     * Create the world.
+     * Create the world with a random seed.
      * 
      * @param services The services reference.
      */
     public World(Services services)
+    {
+        this(services, System.nanoTime(), true);
+    }
+
+    /**
+     * Create the world.
+     * 
+     * @param services The services reference.
+     * @param seed The random seed, same seed and inputs giving the same game.
+     * @param autosaving <code>true</code> to save periodically, <code>false</code> else.
+     */
+    public World(Services services, long seed, boolean autosaving)
     {
         super(services);
 
+        services.add(new Rng(seed));
+        timers = services.add(new TimerWheel());
+        scans = services.add(new ScanQueue(services));
         services.add(new ProduceProgress());
+        services.add(new SurfaceCache());
+        pool = services.add(new FeaturablePool(services));
+        services.add(new EntityIndex(services));
+        services.add(new WarehouseRegistry(services));
+        culling = services.add(new ViewCulling(services));
+        commands = services.add(new CommandLog(services));
+        snapshot = new WorldSnapshot(services);
+        if (autosaving)
+        {
+            autosave = new Autosave(this, Constant.AUTOSAVE_DELAY, Constant.AUTOSAVE_SLOTS);
+        }
+        else
+        {
+            autosave = null;
+        }
 
         camera.setView(VIEW_X, VIEW_Y, AREA.getWidth(), AREA.getHeight(), AREA.getHeight());
 
@@ -117,6 +171,73 @@ public class World extends WorldGame
         selection = new WorldSelection(services);
     }
 
+    /**
+     * Record player orders.
+     * 
+     * @param log The log output.
+     */
+    public void record(Media log)
+    {
+        commands.record(log);
+    }
+
+    /**
+     * Stop recording player orders and autosave, once world ended.
+     */
+    public void terminate()
+    {
+        commands.close();
+        if (autosave != null)
+        {
+            autosave.close();
+        }
+    }
+
+    /**
+     * Replay recorded player orders.
+     * 
+     * @param log The recorded log.
+     * @throws IOException If invalid log.
+     */
+    public void replay(Media log) throws IOException
+    {
+        commands.replay(log);
+    }
+
+    /**
+     * Check if replayed orders remain or recorded session end is not reached.
+     * 
+     * @return <code>true</code> if replaying, <code>false</code> else.
+     */
+    public boolean isReplaying()
+    {
+        return commands.isReplaying();
+    }
+
+    /**
+     * Restore world from an autosave, applied over the level on next load.
+     * 
+     * @param save The autosave file.
+     * @throws IOException If error on reading.
+     */
+    public void restore(Media save) throws IOException
+    {
+        restoring = Autosave.read(save);
+    }
+
+    /**
+     * Capture current world state.
+     * 
+     * @return The world capture.
+     */
+    WorldCapture capture()
+    {
+        final WorldCapture capture = snapshot.capture();
+        capture.setView((int) camera.getX(), (int) camera.getY());
+        capture.setAi(snapshot.indexOf(aiBarracks), aiAttack != null ? timers.getRemaining(aiAttack) : 0);
+        return capture;
+    }
+
     @Override
     protected void saving(FileWriting file) throws IOException
     {
@@ -127,6 +248,12 @@ public class World extends WorldGame
     protected void loading(FileReading file) throws IOException
     {
         worldMap.load(file);
+        final WorldCapture capture = restoring;
+        restoring = null;
+        if (capture != null)
+        {
+            worldMap.restoreCuts(capture.getCuts());
+        }
         minimap.load();
         selection.reset();
 
@@ -140,9 +267,25 @@ public class World extends WorldGame
         cursor.setInputDevice(pointer);
         cursor.setViewer(camera);
 
-        createAi(Race.HUMAN, 8, 56);
-        createPlayer(Race.ORC, 46, 14);
-        spawn(Race.ORC, Unit.SPEARMAN, 50, 20);
+        if (capture != null)
+        {
+            snapshot.restore(capture);
+            camera.teleport(capture.getViewX(), capture.getViewY());
+
+            final Featurable barracks = snapshot.get(capture.getBarracks());
+            if (barracks != null)
+            {
+                startAi(barracks.getFeature(EntityStats.class).getRace(),
+                        barracks.getFeature(Producer.class),
+                        capture.getAiDelay());
+            }
+        }
+        else
+        {
+            createAi(Race.HUMAN, 8, 56);
+            createPlayer(Race.ORC, 46, 14);
+            spawn(Race.ORC, Unit.SPEARMAN, 50, 20);
+        }
 
         music = AudioFactory.loadAudio(Music.ORC_CAMPAIGN2.get());
         music.setVolume(Constant.VOLUME_DEFAULT);
@@ -193,7 +336,19 @@ public class World extends WorldGame
         spawn(race, Unit.FARM, tx - 6, ty - 1);
         spawn(race, Unit.LUMBERMILL, tx + 6, ty - 4);
 
-        final Producer barracks = spawn(race, Unit.BARRACKS, tx + 6, ty + 1).getFeature(Producer.class);
+        startAi(race, spawn(race, Unit.BARRACKS, tx + 6, ty + 1).getFeature(Producer.class), DELAY_ATTACK);
+    }
+
+    /**
+     * Start AI production and attacks.
+     * 
+     * @param race The AI race.
+     * @param barracks The AI barracks.
+     * @param delay The delay in tick before first attack.
+     */
+    private void startAi(Race race, Producer barracks, int delay)
+    {
+        aiBarracks = barracks;
         barracks.addListener(new ProducerListenerVoid()
         {
             @Override
@@ -201,15 +356,16 @@ public class World extends WorldGame
             {
                 featurable.getFeature(AutoAttack.class).setForce(true);
 
-                final Warehouse warehouse = Util.getWarehouse(services, player.getRace());
+                final Pathfindable pathfindable = featurable.getFeature(Pathfindable.class);
+                final Warehouse warehouse = Util.getWarehouse(services, player.getRace(), pathfindable);
                 if (warehouse != null)
                 {
-                    featurable.getFeature(Pathfindable.class).setDestination(warehouse);
+                    paths.request(pathfindable, warehouse);
                 }
             }
         });
-        tick.addAction(() -> aiProduceAndAttack(race, barracks), DELAY_ATTACK);
-        tick.start();
+        aiAttack = new Timer(() -> aiProduceAndAttack(race, barracks));
+        timers.schedule(aiAttack, delay);
     }
 
     /**
@@ -221,7 +377,8 @@ public class World extends WorldGame
     private void aiProduceAndAttack(Race race, Producer barracks)
     {
         barracks.addToProductionQueue(factory.create(race.get(Unit.FOOTMAN)));
-        tick.addAction(() -> aiProduceAndAttack(race, barracks), DELAY_ATTACK);
+        barracks.getFeature(EntityUpdater.class).wake();
+        timers.schedule(aiAttack, DELAY_ATTACK);
     }
 
     /**
@@ -248,15 +405,25 @@ public class World extends WorldGame
     @Override
     public void update(double extrp)
     {
+        commands.update(extrp);
         text.setText(com.b3dgs.lionengine.Constant.EMPTY_STRING);
 
         pointer.update(extrp);
         cursor.update(extrp);
         navigator.update(extrp);
         player.update(extrp);
-        tick.update(extrp);
+        timers.update(extrp);
+        paths.update(extrp);
+        scans.update(extrp);
 
         super.update(extrp);
+        pool.update(extrp);
+        fieldOfView.update(extrp);
+        culling.update(extrp);
+        if (autosave != null)
+        {
+            autosave.update(extrp);
+        }
     }
 
     @Override
@@ -0,0 +1,569 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.b3dgs.lionengine.game.Tiled;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.producible.Producer;
+import com.b3dgs.lionengine.game.feature.producible.Producible;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.extractable.Extractor;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.lionengine.io.FileReading;
+import com.b3dgs.lionengine.io.FileWriting;
+import com.b3dgs.warcraft.object.EntityModel;
+import com.b3dgs.warcraft.object.feature.EntityStats;
+
+/**
+ * Copy of the simulation state, taken on the game thread and written from any thread.
+ * <p>
+ * Values are copied from the world when captured, so writing never reads the running world. Captured state is the map
+ * changes since level load (the cut trees), the {@link Player}, each entity in spawn order with its media, tile
+ * location, health, resource and production queue, then the camera location, the AI barracks index and its remaining
+ * attack delay.
+ * </p>
+ * <p>
+ * Production queue holds the element under production first, restarted from the beginning when queued again.
+ * Entities under production are not captured, as their producer queues them again.
+ * </p>
+ * <p>
+ * File starts with a magic number and its format version.
+ * </p>
+ */
+final class WorldCapture
+{
+    /** Capture magic number. */
+    private static final int MAGIC = 0x5752_534E;
+    /** Capture format version, to increment when a written field changes. */
+    private static final int VERSION = 4;
+    /** Unsupported version error. */
+    private static final String ERROR_VERSION = "Unsupported capture version: ";
+
+    /**
+     * Read capture.
+     * 
+     * @param file The input file.
+     * @return The read capture, <code>null</code> if file has no capture.
+     * @throws IOException If error on reading.
+     */
+    static WorldCapture read(FileReading file) throws IOException
+    {
+        if (file.readInteger() != MAGIC)
+        {
+            return null;
+        }
+        final int version = file.readInteger();
+        if (version != VERSION)
+        {
+            throw new IOException(ERROR_VERSION + version);
+        }
+
+        final int[] cuts = new int[file.readInteger()];
+        for (int i = 0; i < cuts.length; i++)
+        {
+            cuts[i] = file.readInteger();
+        }
+        final int[] stock = new int[Player.STOCK_COUNT];
+        for (int i = 0; i < stock.length; i++)
+        {
+            stock[i] = file.readInteger();
+        }
+        final String[] unlocked = new String[file.readInteger()];
+        for (int i = 0; i < unlocked.length; i++)
+        {
+            unlocked[i] = file.readString();
+        }
+
+        final WorldCapture capture = new WorldCapture(cuts, stock, unlocked);
+        final int count = file.readInteger();
+        for (int i = 0; i < count; i++)
+        {
+            capture.entities.add(Entity.read(file));
+        }
+        capture.setView(file.readInteger(), file.readInteger());
+        capture.setAi(file.readInteger(), file.readInteger());
+
+        return capture;
+    }
+
+    private final List<Entity> entities = new ArrayList<>();
+    private final int[] cuts;
+    private final int[] stock;
+    private final String[] unlocked;
+
+    private int viewX;
+    private int viewY;
+    private int barracks = -1;
+    private int aiDelay;
+
+    /**
+     * Create capture.
+     * 
+     * @param cuts The cut trees copy.
+     * @param stock The player stock copy.
+     * @param unlocked The player unlocked values copy.
+     */
+    WorldCapture(int[] cuts, int[] stock, String[] unlocked)
+    {
+        super();
+
+        this.cuts = cuts;
+        this.stock = stock;
+        this.unlocked = unlocked;
+    }
+
+    /**
+     * Capture entity state.
+     * 
+     * @param featurable The entity to capture.
+     * @param map The map reference.
+     */
+    void add(Featurable featurable, MapTile map)
+    {
+        entities.add(Entity.capture(featurable, map));
+    }
+
+    /**
+     * Set the camera location.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    void setView(int x, int y)
+    {
+        viewX = x;
+        viewY = y;
+    }
+
+    /**
+     * Set the AI state.
+     * 
+     * @param index The AI barracks entity index, <code>-1</code> if none.
+     * @param delay The remaining delay in tick before next AI attack.
+     */
+    void setAi(int index, int delay)
+    {
+        barracks = index;
+        aiDelay = delay;
+    }
+
+    /**
+     * Write capture.
+     * 
+     * @param file The output file.
+     * @throws IOException If error on writing.
+     */
+    void write(FileWriting file) throws IOException
+    {
+        file.writeInteger(MAGIC);
+        file.writeInteger(VERSION);
+
+        file.writeInteger(cuts.length);
+        for (final int cut : cuts)
+        {
+            file.writeInteger(cut);
+        }
+        for (final int value : stock)
+        {
+            file.writeInteger(value);
+        }
+        file.writeInteger(unlocked.length);
+        for (final String value : unlocked)
+        {
+            file.writeString(value);
+        }
+
+        file.writeInteger(entities.size());
+        for (final Entity entity : entities)
+        {
+            entity.write(file);
+        }
+        file.writeInteger(viewX);
+        file.writeInteger(viewY);
+        file.writeInteger(barracks);
+        file.writeInteger(aiDelay);
+    }
+
+    /**
+     * Get the cut trees.
+     * 
+     * @return The cut trees.
+     */
+    int[] getCuts()
+    {
+        return cuts;
+    }
+
+    /**
+     * Get the player stock.
+     * 
+     * @return The player stock.
+     */
+    int[] getStock()
+    {
+        return stock;
+    }
+
+    /**
+     * Get the player unlocked values.
+     * 
+     * @return The player unlocked values.
+     */
+    String[] getUnlocked()
+    {
+        return unlocked;
+    }
+
+    /**
+     * Get the captured entities.
+     * 
+     * @return The captured entities in spawn order.
+     */
+    List<Entity> getEntities()
+    {
+        return Collections.unmodifiableList(entities);
+    }
+
+    /**
+     * Get the horizontal camera location.
+     * 
+     * @return The horizontal camera location.
+     */
+    int getViewX()
+    {
+        return viewX;
+    }
+
+    /**
+     * Get the vertical camera location.
+     * 
+     * @return The vertical camera location.
+     */
+    int getViewY()
+    {
+        return viewY;
+    }
+
+    /**
+     * Get the AI barracks entity index.
+     * 
+     * @return The entity index, <code>-1</code> if none.
+     */
+    int getBarracks()
+    {
+        return barracks;
+    }
+
+    /**
+     * Get the remaining delay before next AI attack.
+     * 
+     * @return The remaining delay in tick.
+     */
+    int getAiDelay()
+    {
+        return aiDelay;
+    }
+
+    /**
+     * Captured entity state.
+     */
+    static final class Entity
+    {
+        /**
+         * Capture entity state.
+         * 
+         * @param featurable The entity to capture.
+         * @param map The map reference.
+         * @return The captured entity.
+         */
+        static Entity capture(Featurable featurable, MapTile map)
+        {
+            final Pathfindable pathfindable = featurable.getFeature(Pathfindable.class);
+            final Entity entity = new Entity(featurable.getMedia().getPath(),
+                                             pathfindable.getInTileX(),
+                                             pathfindable.getInTileY(),
+                                             featurable.getFeature(EntityStats.class).getHealth());
+
+            final String resource = featurable.getFeature(EntityModel.class).getResource();
+            if (resource != null)
+            {
+                final Tiled location = featurable.getFeature(Extractor.class).getResourceLocation();
+                entity.setResource(resource,
+                                   location.getInTileX(),
+                                   location.getInTileY(),
+                                   location.getInTileWidth(),
+                                   location.getInTileHeight());
+            }
+
+            final Producer producer = featurable.getFeature(Producer.class);
+            final Featurable current = producer.getProducingElement();
+            if (current != null)
+            {
+                entity.queue(current, map);
+            }
+            for (final Featurable queued : producer)
+            {
+                if (queued != current)
+                {
+                    entity.queue(queued, map);
+                }
+            }
+            return entity;
+        }
+
+        /**
+         * Read entity.
+         * 
+         * @param file The input file.
+         * @return The read entity.
+         * @throws IOException If error on reading.
+         */
+        static Entity read(FileReading file) throws IOException
+        {
+            final Entity entity = new Entity(file.readString(),
+                                             file.readInteger(),
+                                             file.readInteger(),
+                                             file.readInteger());
+            if (file.readBoolean())
+            {
+                entity.setResource(file.readString(),
+                                   file.readInteger(),
+                                   file.readInteger(),
+                                   file.readInteger(),
+                                   file.readInteger());
+            }
+            final int count = file.readInteger();
+            for (int i = 0; i < count; i++)
+            {
+                entity.queue.add(new Queued(file.readString(), file.readInteger(), file.readInteger()));
+            }
+            return entity;
+        }
+
+        /** Entity media path. */
+        private final String media;
+        /** Horizontal tile location. */
+        private final int tx;
+        /** Vertical tile location. */
+        private final int ty;
+        /** Current health. */
+        private final int health;
+        /** Resource location and size in tile. */
+        private final int[] location = new int[4];
+        /** Production queue, element under production first. */
+        private final List<Queued> queue = new ArrayList<>();
+        /** Resource type, <code>null</code> if none. */
+        private String resource;
+
+        /**
+         * Create entity.
+         * 
+         * @param media The entity media path.
+         * @param tx The horizontal tile location.
+         * @param ty The vertical tile location.
+         * @param health The current health.
+         */
+        private Entity(String media, int tx, int ty, int health)
+        {
+            this.media = media;
+            this.tx = tx;
+            this.ty = ty;
+            this.health = health;
+        }
+
+        /**
+         * Set the extracted resource.
+         * 
+         * @param type The resource type.
+         * @param rtx The horizontal resource tile.
+         * @param rty The vertical resource tile.
+         * @param rtw The resource width in tile.
+         * @param rth The resource height in tile.
+         */
+        private void setResource(String type, int rtx, int rty, int rtw, int rth)
+        {
+            resource = type;
+            location[0] = rtx;
+            location[1] = rty;
+            location[2] = rtw;
+            location[3] = rth;
+        }
+
+        /**
+         * Add element to production queue.
+         * 
+         * @param produced The produced element.
+         * @param map The map reference.
+         */
+        private void queue(Featurable produced, MapTile map)
+        {
+            final Producible producible = produced.getFeature(Producible.class);
+            queue.add(new Queued(produced.getMedia().getPath(),
+                                 (int) producible.getX() / map.getTileWidth(),
+                                 (int) producible.getY() / map.getTileHeight()));
+        }
+
+        /**
+         * Write entity.
+         * 
+         * @param file The output file.
+         * @throws IOException If error on writing.
+         */
+        private void write(FileWriting file) throws IOException
+        {
+            file.writeString(media);
+            file.writeInteger(tx);
+            file.writeInteger(ty);
+            file.writeInteger(health);
+            file.writeBoolean(resource != null);
+            if (resource != null)
+            {
+                file.writeString(resource);
+                for (final int value : location)
+                {
+                    file.writeInteger(value);
+                }
+            }
+            file.writeInteger(queue.size());
+            for (final Queued queued : queue)
+            {
+                file.writeString(queued.media);
+                file.writeInteger(queued.tx);
+                file.writeInteger(queued.ty);
+            }
+        }
+
+        /**
+         * Restore captured state to spawned entity.
+         * 
+         * @param featurable The spawned entity.
+         */
+        void restore(Featurable featurable)
+        {
+            featurable.getFeature(Pathfindable.class).setLocation(tx, ty);
+            featurable.getFeature(EntityStats.class).setHealth(health);
+            if (resource != null)
+            {
+                final Extractor extractor = featurable.getFeature(Extractor.class);
+                extractor.setResource(resource, location[0], location[1], location[2], location[3]);
+                extractor.startExtraction();
+            }
+        }
+
+        /**
+         * Get the production queue.
+         * 
+         * @return The production queue, element under production first.
+         */
+        List<Queued> getQueue()
+        {
+            return Collections.unmodifiableList(queue);
+        }
+
+        /**
+         * Get the entity media path.
+         * 
+         * @return The entity media path.
+         */
+        String getMedia()
+        {
+            return media;
+        }
+
+        /**
+         * Get the horizontal tile location.
+         * 
+         * @return The horizontal tile location.
+         */
+        int getInTileX()
+        {
+            return tx;
+        }
+
+        /**
+         * Get the vertical tile location.
+         * 
+         * @return The vertical tile location.
+         */
+        int getInTileY()
+        {
+            return ty;
+        }
+    }
+
+    /**
+     * Captured production queue element.
+     */
+    static final class Queued
+    {
+        /** Produced media path. */
+        private final String media;
+        /** Horizontal production tile. */
+        private final int tx;
+        /** Vertical production tile. */
+        private final int ty;
+
+        /**
+         * Create queued element.
+         * 
+         * @param media The produced media path.
+         * @param tx The horizontal production tile.
+         * @param ty The vertical production tile.
+         */
+        private Queued(String media, int tx, int ty)
+        {
+            this.media = media;
+            this.tx = tx;
+            this.ty = ty;
+        }
+
+        /**
+         * Get the produced media path.
+         * 
+         * @return The produced media path.
+         */
+        String getMedia()
+        {
+            return media;
+        }
+
+        /**
+         * Get the horizontal production tile.
+         * 
+         * @return The horizontal production tile.
+         */
+        int getInTileX()
+        {
+            return tx;
+        }
+
+        /**
+         * Get the vertical production tile.
+         * 
+         * @return The vertical production tile.
+         */
+        int getInTileY()
+        {
+            return ty;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Spawner;
+import com.b3dgs.lionengine.game.feature.state.StateHandler;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.geom.Geom;
+import com.b3dgs.warcraft.object.feature.EntityStats;
+import com.b3dgs.warcraft.object.state.StateProducing;
+import com.b3dgs.warcraft.world.CommandLog;
+import com.b3dgs.warcraft.world.Forest;
+
+/**
+ * Simulation state capture and restore.
+ * <p>
+ * Entities are tracked in spawn order, and captured with the {@link Player} and map changes in a {@link WorldCapture}.
+ * </p>
+ * <p>
+ * Entities under production, including buildings under construction, are skipped, as their producer production queue
+ * is captured and queued again on restore, without paying its cost twice.
+ * </p>
+ */
+final class WorldSnapshot
+{
+    private final Set<Featurable> entities = new LinkedHashSet<>();
+    private final List<Featurable> saved = new ArrayList<>();
+    private final List<Featurable> restored = new ArrayList<>();
+    private final Spawner spawner;
+    private final MapTile map;
+    private final Player player;
+    private final Forest forest;
+    private final CommandLog commands;
+
+    /**
+     * Create snapshot.
+     * 
+     * @param services The services reference.
+     */
+    WorldSnapshot(Services services)
+    {
+        super();
+
+        spawner = services.get(Spawner.class);
+        map = services.get(MapTile.class);
+        player = services.get(Player.class);
+        forest = services.get(Forest.class);
+        commands = services.get(CommandLog.class);
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                if (featurable.hasFeature(EntityStats.class))
+                {
+                    entities.add(featurable);
+                }
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                entities.remove(featurable);
+            }
+        });
+    }
+
+    /**
+     * Check if entity is under production.
+     * 
+     * @param featurable The entity to check.
+     * @return <code>true</code> if under production, <code>false</code> else.
+     */
+    private static boolean isProducing(Featurable featurable)
+    {
+        return featurable.getFeature(StateHandler.class).isState(StateProducing.class);
+    }
+
+    /**
+     * Collect captured entities, skipping those under production.
+     */
+    private void collect()
+    {
+        saved.clear();
+        for (final Featurable featurable : entities)
+        {
+            if (!isProducing(featurable))
+            {
+                saved.add(featurable);
+            }
+        }
+    }
+
+    /**
+     * Capture simulation state.
+     * 
+     * @return The captured state, entity indexes being available with {@link #indexOf(FeatureProvider)}.
+     */
+    WorldCapture capture()
+    {
+        collect();
+
+        final WorldCapture capture = new WorldCapture(forest.getCuts(), player.getStock(), player.getUnlocked());
+        for (final Featurable featurable : saved)
+        {
+            capture.add(featurable, map);
+        }
+        return capture;
+    }
+
+    /**
+     * Restore simulation state, once map changes have been restored.
+     * 
+     * @param capture The captured state.
+     */
+    void restore(WorldCapture capture)
+    {
+        player.restore(capture.getStock(), capture.getUnlocked());
+
+        restored.clear();
+        for (final WorldCapture.Entity entity : capture.getEntities())
+        {
+            final int tx = entity.getInTileX();
+            final int ty = entity.getInTileY();
+            final Featurable featurable = spawner.spawn(Medias.create(entity.getMedia()),
+                                                        Geom.createLocalizable(tx * map.getTileWidth(),
+                                                                               ty * map.getTileHeight()));
+            entity.restore(featurable);
+            restored.add(featurable);
+        }
+
+        final int n = restored.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Featurable producer = restored.get(i);
+            for (final WorldCapture.Queued queued : capture.getEntities().get(i).getQueue())
+            {
+                commands.requeue(producer,
+                                 Medias.create(queued.getMedia()),
+                                 queued.getInTileX(),
+                                 queued.getInTileY());
+            }
+        }
+    }
+
+    /**
+     * Get the entity index in last capture.
+     * 
+     * @param entity The entity reference (can be <code>null</code>).
+     * @return The entity index, <code>-1</code> if not stored.
+     */
+    int indexOf(FeatureProvider entity)
+    {
+        if (entity == null)
+        {
+            return -1;
+        }
+        final Integer id = entity.getFeature(Identifiable.class).getId();
+        final int n = saved.size();
+        for (int i = 0; i < n; i++)
+        {
+            if (saved.get(i).getFeature(Identifiable.class).getId().equals(id))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the restored entity from its index.
+     * 
+     * @param index The entity index.
+     * @return The restored entity, <code>null</code> if none.
+     */
+    Featurable get(int index)
+    {
+        if (index < 0 || index >= restored.size())
+        {
+            return null;
+        }
+        return restored.get(index);
+    }
+}
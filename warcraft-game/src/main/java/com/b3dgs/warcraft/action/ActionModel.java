@@ -16,6 +16,7 @@
  */
 package com.b3dgs.warcraft.action;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -32,6 +33,7 @@ import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.assignable.Assignable;
 import com.b3dgs.lionengine.game.feature.assignable.AssignableModel;
+import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
 import com.b3dgs.lionengine.game.feature.collidable.selector.Selector;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
@@ -43,6 +45,8 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteFont;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Gfx;
+import com.b3dgs.warcraft.object.feature.EntitySfx;
+import com.b3dgs.warcraft.world.CommandLog;
 
 /**
  * Action model implementation.
@@ -70,6 +74,8 @@ public class ActionModel extends FeaturableModel implements Updatable, Renderabl
     protected final Handler handler = services.get(Handler.class);
     /** Text reference. */
     protected final SpriteFont text = services.get(SpriteFont.class);
+    /** Commands reference. */
+    protected final CommandLog commands = services.get(CommandLog.class);
 
     private final String description;
 
@@ -127,6 +133,18 @@ public class ActionModel extends FeaturableModel implements Updatable, Renderabl
         return false;
     }
 
+    /**
+     * Play the ordered sound of the first selected entity.
+     */
+    protected void playOrdered()
+    {
+        final List<Selectable> selection = selector.getSelection();
+        if (!selection.isEmpty())
+        {
+            selection.get(0).getFeature(EntitySfx.class).onOrdered();
+        }
+    }
+
     /**
      * Called on button click.
      */
@@ -16,14 +16,9 @@
  */
 package com.b3dgs.warcraft.action;
 
-import java.util.List;
-
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.Transformable;
-import com.b3dgs.lionengine.game.feature.attackable.Attacker;
-import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
-import com.b3dgs.warcraft.object.feature.EntitySfx;
+import com.b3dgs.warcraft.world.Command;
 
 /**
  * Attack action.
@@ -44,28 +39,12 @@ public class Attack extends ActionModel
     @Override
     protected boolean assign()
     {
-        final List<Selectable> selection = selector.getSelection();
-        final int n = selection.size();
-        for (int i = 0; i < n; i++)
-        {
-            final int tx = map.getInTileX(cursor);
-            final int ty = map.getInTileY(cursor);
-            final Selectable selectable = selection.get(i);
-
-            for (final Integer id : mapPath.getObjectsId(tx, ty))
-            {
-                final Transformable transformable = handler.get(id).getFeature(Transformable.class);
-                if (selectable.getFeature(Transformable.class) != transformable)
-                {
-                    selectable.getFeature(Attacker.class).attack(transformable);
-                }
-            }
-
-            if (i == 0)
-            {
-                selectable.getFeature(EntitySfx.class).onOrdered();
-            }
-        }
+        commands.issue(Command.ATTACK,
+                       selector.getSelection(),
+                       map.getInTileX(cursor),
+                       map.getInTileY(cursor),
+                       null);
+        playOrdered();
         return true;
     }
 }
@@ -25,23 +25,15 @@ import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.Viewer;
-import com.b3dgs.lionengine.Xml;
-import com.b3dgs.lionengine.game.Configurer;
 import com.b3dgs.lionengine.game.Cursor;
 import com.b3dgs.lionengine.game.SizeConfig;
 import com.b3dgs.lionengine.game.feature.Actionable;
-import com.b3dgs.lionengine.game.feature.Factory;
-import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.collidable.selector.Hud;
 import com.b3dgs.lionengine.game.feature.collidable.selector.HudListener;
 import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
-import com.b3dgs.lionengine.game.feature.producible.Producer;
-import com.b3dgs.lionengine.game.feature.producible.Producible;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
 import com.b3dgs.lionengine.geom.Rectangle;
 import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.Graphic;
@@ -53,6 +45,9 @@ import com.b3dgs.warcraft.Util;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Gfx;
 import com.b3dgs.warcraft.object.CostConfig;
+import com.b3dgs.warcraft.object.Prototypes;
+import com.b3dgs.warcraft.world.Command;
+import com.b3dgs.warcraft.world.FieldOfView;
 
 /**
  * Build button action.
@@ -92,13 +87,12 @@ public class BuildButton extends ActionModel
     private int colorSide = 1;
     private int color;
 
-    private final Factory factory = services.get(Factory.class);
     private final Viewer viewer = services.get(Viewer.class);
     private final Cursor cursor = services.get(Cursor.class);
     private final InputDevicePointer pointer = services.get(InputDevicePointer.class);
     private final Hud hud = services.get(Hud.class);
     private final Player player = services.get(Player.class);
-    private final FogOfWar fogOfWar = services.get(FogOfWar.class);
+    private final FieldOfView fieldOfView = services.get(FieldOfView.class);
 
     /**
      * Create build button action.
@@ -111,7 +105,7 @@ public class BuildButton extends ActionModel
         super(services, setup);
 
         target = Medias.create(setup.getText(NODE_MEDIA).split(com.b3dgs.lionengine.Constant.SLASH));
-        config = CostConfig.imports(new Configurer(target));
+        config = Prototypes.get(target).getCost();
 
         hud.addListener(new HudListener()
         {
@@ -163,7 +157,7 @@ public class BuildButton extends ActionModel
             return false;
         }
 
-        final SizeConfig size = SizeConfig.imports(new Xml(target));
+        final SizeConfig size = Prototypes.get(target).getSize();
         area = new Rectangle(0, 0, size.getWidth(), size.getHeight());
         hud.setCancelShortcut(() -> pointer.hasClickedOnce(3));
         cursor.setVisible(false);
@@ -179,24 +173,11 @@ public class BuildButton extends ActionModel
             return false;
         }
 
-        for (final Selectable selectable : selector.getSelection())
-        {
-            player.decreaseResource(config.getWood(), config.getGold());
-
-            final Featurable building = factory.create(target);
-            final Producible producible = building.getFeature(Producible.class);
-            producible.setLocation(area.getX(), area.getY());
-
-            final Producer producer = selectable.getFeature(Producer.class);
-            final Pathfindable pathfindable = producer.getFeature(Pathfindable.class);
-            final Transformable transformable = producer.getFeature(Transformable.class);
-            producer.setChecker(featurable -> UtilMath.getDistance(featurable.getFeature(Producible.class),
-                                                                   transformable) < map.getTileWidth()
-                                              && pathfindable.isDestinationReached());
-
-            pathfindable.setDestination(area);
-            producer.addToProductionQueue(building);
-        }
+        commands.issue(Command.BUILD,
+                       selector.getSelection(),
+                       (int) area.getX() / map.getTileWidth(),
+                       (int) area.getY() / map.getTileHeight(),
+                       target);
         area = null;
         hud.clearMenus();
         hud.setCancelShortcut(() -> false);
@@ -218,7 +199,7 @@ public class BuildButton extends ActionModel
                      UtilMath.getRounded(cursor.getY(), cursor.getHeight()),
                      area.getWidthReal(),
                      area.getHeightReal());
-            valid = mapPath.isAreaAvailable(area, mover) && fogOfWar.isVisited(area);
+            valid = mapPath.isAreaAvailable(area, mover) && fieldOfView.isVisited(area);
 
             updateColor();
         }
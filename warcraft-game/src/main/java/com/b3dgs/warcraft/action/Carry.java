@@ -16,16 +16,9 @@
  */
 package com.b3dgs.warcraft.action;
 
-import java.util.List;
-
-import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.warcraft.Util;
-import com.b3dgs.warcraft.object.feature.EntitySfx;
-import com.b3dgs.warcraft.object.feature.EntityStats;
+import com.b3dgs.warcraft.world.Command;
 
 /**
  * Carry action.
@@ -33,7 +26,7 @@ import com.b3dgs.warcraft.object.feature.EntityStats;
 public class Carry extends ActionModel
 {
     /**
-     * Create action.
+     * Create carry action.
      * 
      * @param services The services reference.
      * @param setup The setup reference.
@@ -44,21 +37,8 @@ public class Carry extends ActionModel
 
         actionable.setAction(() ->
         {
-            final List<Selectable> selection = selector.getSelection();
-            final int n = selection.size();
-            for (int i = 0; i < n; i++)
-            {
-                final Selectable selectable = selection.get(i);
-                final Tiled warehouse = Util.getWarehouse(services, selectable.getFeature(EntityStats.class).getRace());
-                if (warehouse != null)
-                {
-                    selectable.getFeature(Pathfindable.class).setDestination(warehouse);
-                    if (i == 0)
-                    {
-                        selectable.getFeature(EntitySfx.class).onOrdered();
-                    }
-                }
-            }
+            commands.issue(Command.CARRY, selector.getSelection());
+            playOrdered();
         });
     }
 }
@@ -16,15 +16,9 @@
  */
 package com.b3dgs.warcraft.action;
 
-import java.util.List;
-
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.attackable.Attacker;
-import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
-import com.b3dgs.lionengine.game.feature.tile.map.extractable.Extractor;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.warcraft.object.feature.EntitySfx;
+import com.b3dgs.warcraft.world.Command;
 
 /**
  * Move action.
@@ -32,7 +26,7 @@ import com.b3dgs.warcraft.object.feature.EntitySfx;
 public class Move extends ActionModel
 {
     /**
-     * Create action.
+     * Create move action.
      * 
      * @param services The services reference.
      * @param setup The setup reference.
@@ -45,20 +39,12 @@ public class Move extends ActionModel
     @Override
     protected boolean assign()
     {
-        final List<Selectable> selection = selector.getSelection();
-        final int n = selection.size();
-        for (int i = 0; i < n; i++)
-        {
-            final Selectable selectable = selection.get(i);
-            selectable.getFeature(Attacker.class).stopAttack();
-            selectable.getFeature(Extractor.class).stopExtraction();
-            selectable.getFeature(Pathfindable.class).setDestination(cursor);
-
-            if (i == 0)
-            {
-                selection.get(0).getFeature(EntitySfx.class).onOrdered();
-            }
-        }
+        commands.issue(Command.MOVE,
+                       selector.getSelection(),
+                       map.getInTileX(cursor),
+                       map.getInTileY(cursor),
+                       null);
+        playOrdered();
         return true;
     }
 }
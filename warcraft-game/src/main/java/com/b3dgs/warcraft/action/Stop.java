@@ -16,15 +16,9 @@
  */
 package com.b3dgs.warcraft.action;
 
-import java.util.List;
-
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.attackable.Attacker;
-import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
-import com.b3dgs.lionengine.game.feature.tile.map.extractable.Extractor;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.warcraft.object.feature.EntitySfx;
+import com.b3dgs.warcraft.world.Command;
 
 /**
  * Stop action.
@@ -32,7 +26,7 @@ import com.b3dgs.warcraft.object.feature.EntitySfx;
 public class Stop extends ActionModel
 {
     /**
-     * Create action.
+     * Create stop action.
      * 
      * @param services The services reference.
      * @param setup The setup reference.
@@ -43,20 +37,8 @@ public class Stop extends ActionModel
 
         actionable.setAction(() ->
         {
-            final List<Selectable> selection = selector.getSelection();
-            final int n = selection.size();
-            for (int i = 0; i < n; i++)
-            {
-                final Selectable selectable = selection.get(i);
-                selectable.getFeature(Pathfindable.class).stopMoves();
-                selectable.getFeature(Attacker.class).stopAttack();
-                selectable.getFeature(Extractor.class).stopExtraction();
-
-                if (i == 0)
-                {
-                    selectable.getFeature(EntitySfx.class).onOrdered();
-                }
-            }
+            commands.issue(Command.STOP, selector.getSelection());
+            playOrdered();
         });
     }
 }
@@ -68,11 +68,24 @@ public final class Constant
     /** Minimap vertical location. */
     public static final int MINIMAP_Y = 6;
 
+    /** Tile path category ground. */
+    public static final String CATEGORY_GROUND = "ground";
     /** Tile path category tree. */
     public static final String CATEGORY_TREE = "tree";
+    /** Next tree search radius in tile. */
+    public static final int TREE_SEARCH_RADIUS = 12;
+    /** Path requests solved per update. */
+    public static final int PATH_REQUESTS_PER_UPDATE = 8;
+    /** Auto attack scans granted per update. */
+    public static final int SCANS_PER_UPDATE = 16;
     /** Tile number tree cut. */
     public static final int TILE_NUM_TREE_CUT = 124;
 
+    /** Autosave delay in tick. */
+    public static final int AUTOSAVE_DELAY = 7200;
+    /** Autosave rotating slots. */
+    public static final int AUTOSAVE_SLOTS = 3;
+
     /** Sfx attribute separator. */
     public static final String SFX_SEPARATOR = ";";
     /** Default volume. */
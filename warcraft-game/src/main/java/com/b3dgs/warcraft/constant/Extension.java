@@ -31,6 +31,10 @@ public final class Extension
     public static final String SFX = ".wav";
     /** Musics file extension (with dot). */
     public static final String MUSIC = ".xmi";
+    /** Compressed saves file extension (with dot). */
+    public static final String SAVE = ".sav.gz";
+    /** Recorded orders file extension (with dot). */
+    public static final String REPLAY = ".rpl";
 
     /**
      * Private constructor.
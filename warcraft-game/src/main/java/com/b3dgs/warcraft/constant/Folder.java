@@ -47,6 +47,8 @@ public final class Folder
     public static final String MUSICS = "music";
     /** Sounds folder. */
     public static final String SOUNDS = "sfx";
+    /** Saves folder. */
+    public static final String SAVES = "save";
 
     /**
      * Private constructor.
@@ -20,26 +20,27 @@ import java.util.List;
 
 import com.b3dgs.lionengine.Animation;
 import com.b3dgs.lionengine.Origin;
-import com.b3dgs.lionengine.Tick;
 import com.b3dgs.lionengine.Viewer;
-import com.b3dgs.lionengine.game.AnimationConfig;
-import com.b3dgs.lionengine.game.FramesConfig;
 import com.b3dgs.lionengine.game.feature.AnimatableModel;
 import com.b3dgs.lionengine.game.feature.DisplayableModel;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
-import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.LayerableModel;
 import com.b3dgs.lionengine.game.feature.RefreshableModel;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
-import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.SpriteAnimated;
+import com.b3dgs.warcraft.Rng;
 import com.b3dgs.warcraft.Sfx;
+import com.b3dgs.warcraft.world.Timer;
+import com.b3dgs.warcraft.world.TimerWheel;
 
 /**
  * Effect implementation.
+ * <p>
+ * Effects with a delay are released to the {@link FeaturablePool} when elapsed, and parked there until spawned again.
+ * </p>
  */
 public final class Effect extends FeaturableModel
 {
@@ -47,10 +48,12 @@ public final class Effect extends FeaturableModel
     private static final String ATT_DELAY = "delay";
     private static final String ANIM_IDLE = "idle";
 
-    private final Tick tick = new Tick();
+    private final Rng rng;
+    private final TimerWheel timers;
     private final List<Sfx> sfx;
     private final SpriteAnimated surface;
     private final Animation animation;
+    private final Timer timer;
     private final int delay;
 
     /**
@@ -63,27 +66,22 @@ public final class Effect extends FeaturableModel
     {
         super(services, setup);
 
-        sfx = Sfx.load(setup, Sfx.ATT_DEAD);
-        animation = AnimationConfig.imports(setup).getAnimation(ANIM_IDLE);
+        rng = services.get(Rng.class);
+        timers = services.get(TimerWheel.class);
+        final Prototype prototype = Prototypes.get(setup);
+        sfx = prototype.getSfx(Sfx.ATT_DEAD);
+        animation = prototype.getAnimations().getAnimation(ANIM_IDLE);
         delay = setup.getIntegerDefault(-1, ATT_DELAY, NODE_EFFECT);
 
-        final FramesConfig config = FramesConfig.imports(setup);
-        surface = Drawable.loadSpriteAnimated(setup.getSurface(), config.getHorizontal(), config.getVertical());
+        surface = services.get(SurfaceCache.class).getSprite(setup);
         surface.setOrigin(Origin.CENTER_BOTTOM);
 
         addFeature(new AnimatableModel(services, setup));
         addFeature(new LayerableModel(services, setup));
 
-        final Identifiable identifiable = getFeature(Identifiable.class);
-        addFeature(new RefreshableModel(extrp ->
-        {
-            surface.update(extrp);
-            tick.update(extrp);
-            if (delay > -1 && tick.elapsed(delay))
-            {
-                identifiable.destroy();
-            }
-        }));
+        final FeaturablePool pool = services.get(FeaturablePool.class);
+        timer = new Timer(() -> pool.release(this));
+        addFeature(new RefreshableModel(surface::update));
 
         final Viewer viewer = services.get(Viewer.class);
         final Transformable transformable = addFeatureAndGet(new TransformableModel(services, setup));
@@ -104,7 +102,10 @@ public final class Effect extends FeaturableModel
     {
         surface.setFrameOffsets(-width / 2, height / 2);
         surface.play(animation);
-        Sfx.playRandom(sfx);
-        tick.start();
+        Sfx.playRandom(rng, sfx);
+        if (delay > -1)
+        {
+            timers.schedule(timer, delay);
+        }
     }
 }
@@ -16,15 +16,10 @@
  */
 package com.b3dgs.warcraft.object;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
 
-import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Origin;
-import com.b3dgs.lionengine.game.Configurer;
 import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.ActionerModel;
 import com.b3dgs.lionengine.game.feature.AnimatableModel;
@@ -38,7 +33,6 @@ import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.attackable.Attacker;
-import com.b3dgs.lionengine.game.feature.attackable.AttackerConfig;
 import com.b3dgs.lionengine.game.feature.attackable.AttackerListenerVoid;
 import com.b3dgs.lionengine.game.feature.attackable.AttackerModel;
 import com.b3dgs.lionengine.game.feature.collidable.Collidable;
@@ -65,10 +59,13 @@ import com.b3dgs.warcraft.ProduceProgress;
 import com.b3dgs.warcraft.Util;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.object.feature.Buildable;
+import com.b3dgs.warcraft.object.feature.Burnable;
 import com.b3dgs.warcraft.object.feature.EntitySfx;
 import com.b3dgs.warcraft.object.feature.EntityStats;
 import com.b3dgs.warcraft.object.state.StateIdle;
 import com.b3dgs.warcraft.object.state.StateProducing;
+import com.b3dgs.warcraft.world.PathClusters;
+import com.b3dgs.warcraft.world.PathQueue;
 
 /**
  * Entity representation base.
@@ -76,8 +73,6 @@ import com.b3dgs.warcraft.object.state.StateProducing;
 public class Entity extends FeaturableModel
 {
     private static final int PREFIX = State.class.getSimpleName().length();
-    private static final String NODE_UNLOCK = "unlock";
-    private static final String ATT_VALUES = "values";
 
     /**
      * Get animation name from state class.
@@ -108,7 +103,8 @@ public class Entity extends FeaturableModel
     {
         final MapTile map = services.get(MapTile.class);
         final Player player = services.get(Player.class);
-        final Set<String> unlocks = loadUnlocks(producible);
+        final PathClusters clusters = services.get(PathClusters.class);
+        final Set<String> unlocks = Prototypes.get(setup).getUnlocks();
 
         return new ProducibleListenerVoid()
         {
@@ -119,6 +115,13 @@ public class Entity extends FeaturableModel
                 pathfindableProducer.stopMoves();
                 pathfindableProducer.clearPath();
                 pathfindable.setLocation(map.getInTileX(producible), map.getInTileY(producible));
+                if (producible.hasFeature(Burnable.class))
+                {
+                    clusters.invalidate(pathfindable.getInTileX(),
+                                        pathfindable.getInTileY(),
+                                        pathfindable.getInTileWidth(),
+                                        pathfindable.getInTileHeight());
+                }
                 producible.getFeature(EntitySfx.class).onStarted();
 
                 if (!producer.hasFeature(Buildable.class))
@@ -137,27 +140,6 @@ public class Entity extends FeaturableModel
         };
     }
 
-    /**
-     * Load defined unlocks.
-     * 
-     * @param producible The producible reference.
-     * @return The loaded unlocks.
-     */
-    private static Set<String> loadUnlocks(Producible producible)
-    {
-        final Media media = producible.getMedia();
-        if (media != null)
-        {
-            final Configurer configurer = new Configurer(media);
-            if (configurer.hasNode(NODE_UNLOCK))
-            {
-                return new HashSet<>(Arrays.asList(configurer.getString(ATT_VALUES, NODE_UNLOCK)
-                                                             .split(Constant.SFX_SEPARATOR)));
-            }
-        }
-        return Collections.emptySet();
-    }
-
     /**
      * Create entity.
      * 
@@ -177,6 +159,7 @@ public class Entity extends FeaturableModel
         addFeature(new FovableModel(services, setup));
 
         final MapTile map = services.get(MapTile.class);
+        final PathQueue paths = services.get(PathQueue.class);
 
         final Pathfindable pathfindable = addFeatureAndGet(new PathfindableModel(services, setup));
         pathfindable.setSpeed(0.8, 0.8);
@@ -185,7 +168,7 @@ public class Entity extends FeaturableModel
         attacker.setAttackDistanceComputer((source, target) -> Util.getDistanceInTile(map, source, target));
         attacker.setAttackChecker(target -> target.getFeature(EntityStats.class).getHealthPercent() > 0);
 
-        if (setup.hasNode(AttackerConfig.NODE_ATTACKER))
+        if (Prototypes.get(setup).getAttacker() != null)
         {
             attacker.addListener(new AttackerListenerVoid()
             {
@@ -202,6 +185,7 @@ public class Entity extends FeaturableModel
                 @Override
                 public void notifyAttackStarted(Transformable target)
                 {
+                    paths.cancel(pathfindable);
                     pathfindable.stopMoves();
                 }
 
@@ -228,6 +212,7 @@ public class Entity extends FeaturableModel
             public void notifyStartProduction(Featurable featurable)
             {
                 featurable.getFeature(StateHandler.class).changeState(StateProducing.class);
+                featurable.getFeature(EntityModel.class).notifyChanged();
             }
         });
 
@@ -243,14 +228,14 @@ public class Entity extends FeaturableModel
             @Override
             public boolean canExtract()
             {
-                return pathfindable.isDestinationReached()
+                return paths.isReached(pathfindable)
                        && Util.getDistanceInTile(pathfindable, extractor.getResourceLocation()) < 1.5;
             }
 
             @Override
             public boolean canCarry()
             {
-                final Tiled warehouse = Util.getWarehouse(services, stats.getRace());
+                final Tiled warehouse = Util.getWarehouse(services, stats.getRace(), pathfindable);
                 if (warehouse == null)
                 {
                     return false;
@@ -18,7 +18,6 @@ package com.b3dgs.warcraft.object;
 
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.game.FeatureProvider;
-import com.b3dgs.lionengine.game.FramesConfig;
 import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.Actionable;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
@@ -48,13 +47,15 @@ import com.b3dgs.lionengine.game.feature.tile.map.extractable.ExtractorListenerV
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.MapTileTransition;
-import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.SpriteAnimated;
 import com.b3dgs.warcraft.Player;
 import com.b3dgs.warcraft.Util;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.object.feature.EntityStats;
 import com.b3dgs.warcraft.object.state.StateIdle;
+import com.b3dgs.warcraft.world.Forest;
+import com.b3dgs.warcraft.world.PathClusters;
+import com.b3dgs.warcraft.world.PathQueue;
 
 /**
  * Entity model implementation.
@@ -67,20 +68,29 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyAttackStarted(Transformable target)
         {
+            changed = true;
             attackStarted = true;
         }
 
         @Override
         public void notifyAttackStopped()
         {
+            changed = true;
             attackStarted = false;
         }
+
+        @Override
+        public void notifyReachingTarget(Transformable target)
+        {
+            changed = true;
+        }
     };
     private final ProducibleListener producibleListener = new ProducibleListenerVoid()
     {
         @Override
         public void notifyProductionEnded(Producer producer)
         {
+            changed = true;
             producibleEnded = true;
         }
     };
@@ -89,9 +99,15 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyStartGoToRessources(String type, Tiled resourceLocation)
         {
+            changed = true;
+            resource = type;
             if (carryResource == null)
             {
-                pathfindable.setDestination(resourceLocation);
+                if (Constant.RESOURCE_WOOD.equals(type))
+                {
+                    forest.claim(extractor, resourceLocation);
+                }
+                paths.request(pathfindable, resourceLocation);
                 gotoResource = true;
             }
         }
@@ -99,6 +115,7 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyStartExtraction(String type, Tiled resourceLocation)
         {
+            changed = true;
             extractResource = type;
             if (Constant.RESOURCE_WOOD.equals(type))
             {
@@ -109,10 +126,11 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyStartCarry(String type, int totalQuantity)
         {
-            final Tiled warehouse = Util.getWarehouse(services, stats.getRace());
+            changed = true;
+            final Tiled warehouse = Util.getWarehouse(services, stats.getRace(), pathfindable);
             if (warehouse != null)
             {
-                pathfindable.setDestination(warehouse);
+                paths.request(pathfindable, warehouse);
                 extractResource = null;
                 carryResource = type;
 
@@ -132,6 +150,7 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyStartDropOff(String type, int totalQuantity)
         {
+            changed = true;
             setVisible(false);
             if (player.owns(EntityModel.this))
             {
@@ -142,6 +161,7 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyDroppedOff(String type, int droppedQuantity)
         {
+            changed = true;
             if (droppedQuantity == 0)
             {
                 setVisible(true);
@@ -152,8 +172,10 @@ public final class EntityModel extends FeatureModel implements Recyclable
         @Override
         public void notifyStopped()
         {
+            changed = true;
             gotoResource = false;
             extractResource = null;
+            resource = null;
         }
     };
 
@@ -165,8 +187,10 @@ public final class EntityModel extends FeatureModel implements Recyclable
     private final MapTile map = services.get(MapTile.class);
     private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
     private final MapTileTransition mapTransition = map.getFeature(MapTileTransition.class);
+    private final Forest forest = services.get(Forest.class);
+    private final PathClusters clusters = services.get(PathClusters.class);
+    private final PathQueue paths = services.get(PathQueue.class);
 
-    @FeatureGet private Transformable transformable;
     @FeatureGet private Collidable collidable;
     @FeatureGet private Selectable selectable;
     @FeatureGet private Pathfindable pathfindable;
@@ -181,9 +205,11 @@ public final class EntityModel extends FeatureModel implements Recyclable
     private boolean gotoResource;
     private String extractResource;
     private String carryResource;
+    private String resource;
 
     private boolean visible = true;
     private boolean display = true;
+    private boolean changed = true;
 
     /**
      * Create model.
@@ -195,10 +221,8 @@ public final class EntityModel extends FeatureModel implements Recyclable
     {
         super(services, setup);
 
-        final FramesConfig config = FramesConfig.imports(setup);
-        surface = Drawable.loadSpriteAnimated(setup.getSurface(), config.getHorizontal(), config.getVertical());
+        surface = services.get(SurfaceCache.class).getSprite(setup);
         surface.setOrigin(Origin.BOTTOM_LEFT);
-        surface.setFrameOffsets(config.getOffsetX(), config.getOffsetY());
     }
 
     @Override
@@ -284,7 +308,7 @@ public final class EntityModel extends FeatureModel implements Recyclable
      */
     public boolean isMoveStarted()
     {
-        return pathfindable.isMoving();
+        return pathfindable.isMoving() || paths.isPending(pathfindable);
     }
 
     /**
@@ -294,7 +318,7 @@ public final class EntityModel extends FeatureModel implements Recyclable
      */
     public boolean isMoveArrived()
     {
-        return !pathfindable.isMoving();
+        return !isMoveStarted();
     }
 
     /**
@@ -327,6 +351,16 @@ public final class EntityModel extends FeatureModel implements Recyclable
         return gotoResource;
     }
 
+    /**
+     * Get the resource type, kept from going to resource until extraction stops.
+     * 
+     * @return The resource type, <code>null</code> if none.
+     */
+    public String getResource()
+    {
+        return resource;
+    }
+
     /**
      * Get the extracting resource type.
      * 
@@ -347,6 +381,26 @@ public final class EntityModel extends FeatureModel implements Recyclable
         return carryResource;
     }
 
+    /**
+     * Notify a change that may trigger a state transition.
+     */
+    public void notifyChanged()
+    {
+        changed = true;
+    }
+
+    /**
+     * Check if a change has been notified since last call, and clear it.
+     * 
+     * @return <code>true</code> if changed, <code>false</code> else.
+     */
+    public boolean consumeChanged()
+    {
+        final boolean current = changed;
+        changed = false;
+        return current;
+    }
+
     /**
      * Reset states flag.
      */
@@ -365,8 +419,10 @@ public final class EntityModel extends FeatureModel implements Recyclable
         final Tile tile = mapPath.getTile(extractor.getResourceLocation());
         map.setTile(tile.getInTileX(), tile.getInTileY(), Constant.TILE_NUM_TREE_CUT);
         mapTransition.resolve(map.getTile(tile.getInTileX(), tile.getInTileY()));
+        forest.cut(tile.getInTileX(), tile.getInTileY());
+        clusters.invalidate(tile.getInTileX() - 1, tile.getInTileY() - 1, 3, 3);
 
-        final Tile next = Util.getClosestTree(map, mapPath, tile, transformable);
+        final Tile next = forest.claimClosest(extractor, tile, Constant.TREE_SEARCH_RADIUS);
         if (next != null)
         {
             extractor.setResource(Constant.RESOURCE_WOOD, next);
@@ -396,14 +452,17 @@ public final class EntityModel extends FeatureModel implements Recyclable
     public void recycle()
     {
         attacker.stopAttack();
+        paths.cancel(pathfindable);
         pathfindable.stopMoves();
         extractor.stopExtraction();
         collidable.setEnabled(true);
         selectable.onSelection(false);
         resetFlags();
         carryResource = null;
+        resource = null;
         visible = true;
         display = true;
+        changed = true;
         stateHandler.changeState(StateIdle.class);
     }
 }
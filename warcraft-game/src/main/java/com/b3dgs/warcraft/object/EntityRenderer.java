@@ -35,11 +35,12 @@ import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.collidable.Collidable;
 import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.drawable.SpriteAnimated;
 import com.b3dgs.warcraft.Player;
 import com.b3dgs.warcraft.object.feature.EntityStats;
+import com.b3dgs.warcraft.world.FieldOfView;
+import com.b3dgs.warcraft.world.ViewCulling;
 
 /**
  * Entity rendering implementation.
@@ -51,7 +52,8 @@ public class EntityRenderer extends FeatureModel implements Displayable
 
     private final Viewer viewer = services.get(Viewer.class);
     private final Player player = services.get(Player.class);
-    private final FogOfWar fogOfWar = services.get(FogOfWar.class);
+    private final FieldOfView fieldOfView = services.get(FieldOfView.class);
+    private final ViewCulling culling = services.get(ViewCulling.class);
 
     @FeatureGet private EntityModel model;
     @FeatureGet private Transformable transformable;
@@ -131,7 +133,7 @@ public class EntityRenderer extends FeatureModel implements Displayable
     @Override
     public void render(Graphic g)
     {
-        if (model.isVisible() && fogOfWar.isVisible(pathfindable))
+        if (culling.isInView(pathfindable) && model.isVisible() && fieldOfView.isVisible(pathfindable))
         {
             updateFrameOffset();
             surface.setLocation(viewer, transformable);
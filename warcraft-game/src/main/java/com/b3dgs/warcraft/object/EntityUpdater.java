@@ -16,13 +16,17 @@
  */
 package com.b3dgs.warcraft.object;
 
+import com.b3dgs.lionengine.AnimState;
 import com.b3dgs.lionengine.Mirror;
+import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.Orientation;
+import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.Animatable;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Mirrorable;
+import com.b3dgs.lionengine.game.feature.Recyclable;
 import com.b3dgs.lionengine.game.feature.Refreshable;
 import com.b3dgs.lionengine.game.feature.Routines;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -32,15 +36,43 @@ import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
 import com.b3dgs.lionengine.game.feature.producible.Producer;
 import com.b3dgs.lionengine.game.feature.state.StateHandler;
 import com.b3dgs.lionengine.game.feature.tile.map.extractable.Extractor;
+import com.b3dgs.lionengine.game.feature.tile.map.extractable.ExtractorListenerVoid;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.object.feature.AutoAttack;
 import com.b3dgs.warcraft.object.feature.EntityStats;
+import com.b3dgs.warcraft.object.state.StateIdle;
+import com.b3dgs.warcraft.object.state.StateIdleGold;
+import com.b3dgs.warcraft.object.state.StateIdleWood;
+import com.b3dgs.warcraft.object.state.StateProducing;
+import com.b3dgs.warcraft.world.PathQueue;
 
 /**
  * Entity updating implementation.
+ * <p>
+ * Entity without {@link AutoAttack} falls asleep once quiescent for {@value #SLEEP_DELAY} updates: idle, full enough
+ * health to not burn, nothing to move to, attack, produce or extract, and animation ended. Asleep entity update does
+ * nothing until {@link #wake()}, called on order, path request, extraction start, production queue push and health
+ * change.
+ * </p>
+ * <p>
+ * Idle and producing states only change on {@link EntityModel} events, so their state handler is skipped until
+ * model notifies a change. An event raised during an update is handled on the next one.
+ * </p>
  */
 @FeatureInterface
-public class EntityUpdater extends FeatureModel implements Refreshable
+public class EntityUpdater extends FeatureModel implements Refreshable, Recyclable
 {
+    /** Quiescent updates before sleeping. */
+    private static final int SLEEP_DELAY = 30;
+
+    private final PathQueue paths = services.get(PathQueue.class);
+
+    private boolean sleeper;
+    private boolean asleep;
+    private int quiescent;
+
+    @FeatureGet private EntityModel model;
     @FeatureGet private StateHandler stateHandler;
     @FeatureGet private Mirrorable mirrorable;
     @FeatureGet private Pathfindable pathfindable;
@@ -63,6 +95,74 @@ public class EntityUpdater extends FeatureModel implements Refreshable
         super(services, setup);
     }
 
+    /**
+     * Wake entity if asleep.
+     */
+    public void wake()
+    {
+        asleep = false;
+        quiescent = 0;
+        model.notifyChanged();
+    }
+
+    /**
+     * Check if entity is asleep.
+     * 
+     * @return <code>true</code> if asleep, <code>false</code> else.
+     */
+    public boolean isAsleep()
+    {
+        return asleep;
+    }
+
+    /**
+     * Check if entity has nothing to update.
+     * 
+     * @return <code>true</code> if quiescent, <code>false</code> else.
+     */
+    private boolean isQuiescent()
+    {
+        return stateHandler.isState(StateIdle.class)
+               && stats.getHealthPercent() >= Constant.HEALTH_PERCENT_WARN
+               && !pathfindable.isMoving()
+               && !paths.isPending(pathfindable)
+               && attacker.getTarget() == null
+               && !producer.isProducing()
+               && producer.getQueueLength() == 0
+               && model.getExtractResource() == null
+               && model.getCarryResource() == null
+               && !animatable.is(AnimState.PLAYING);
+    }
+
+    /**
+     * Check if current state transitions only depend on model events.
+     * 
+     * @return <code>true</code> if event driven, <code>false</code> if polled.
+     */
+    private boolean isEventDriven()
+    {
+        return stateHandler.isState(StateIdle.class)
+               || stateHandler.isState(StateIdleGold.class)
+               || stateHandler.isState(StateIdleWood.class)
+               || stateHandler.isState(StateProducing.class);
+    }
+
+    /**
+     * Count quiescent updates and fall asleep after delay.
+     */
+    private void updateSleep()
+    {
+        if (isQuiescent())
+        {
+            quiescent++;
+            asleep = quiescent > SLEEP_DELAY;
+        }
+        else
+        {
+            quiescent = 0;
+        }
+    }
+
     /**
      * Update mirror depending on orientation.
      */
@@ -79,11 +179,35 @@ public class EntityUpdater extends FeatureModel implements Refreshable
         }
     }
 
+    @Override
+    public void prepare(FeatureProvider provider)
+    {
+        super.prepare(provider);
+
+        sleeper = !provider.hasFeature(AutoAttack.class);
+        extractor.addListener(new ExtractorListenerVoid()
+        {
+            @Override
+            public void notifyStartGoToRessources(String type, Tiled resourceLocation)
+            {
+                wake();
+            }
+        });
+    }
+
     @Override
     public void update(double extrp)
     {
+        if (asleep)
+        {
+            return;
+        }
         routines.update(extrp);
-        stateHandler.update(extrp);
+        final boolean transit = model.consumeChanged() || !isEventDriven();
+        if (transit)
+        {
+            stateHandler.update(extrp);
+        }
         if (stats.getHealthPercent() > 0)
         {
             pathfindable.update(extrp);
@@ -91,9 +215,23 @@ public class EntityUpdater extends FeatureModel implements Refreshable
             producer.update(extrp);
             extractor.update(extrp);
         }
-        stateHandler.postUpdate();
+        if (transit)
+        {
+            stateHandler.postUpdate();
+        }
         updateMirror();
         mirrorable.update(extrp);
         animatable.update(extrp);
+
+        if (sleeper)
+        {
+            updateSleep();
+        }
+    }
+
+    @Override
+    public void recycle()
+    {
+        wake();
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.object;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Localizable;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Recyclable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Spawner;
+import com.b3dgs.lionengine.game.feature.Transformable;
+
+/**
+ * Spawn short lived featurables, such as effects, reusing the released ones of the same media.
+ * <p>
+ * Released featurables are removed from handler, so they are neither updated nor rendered, and parked on next update
+ * once removed. They are kept up to the <code>pool</code> size of their media, counting the ones waiting for next
+ * update, and destroyed over this size. Parked featurables are spawned again by recycling their {@link Recyclable}
+ * features, without building a new feature graph.
+ * </p>
+ */
+public class FeaturablePool implements Updatable
+{
+    private final Map<Media, Deque<Featurable>> parked = new HashMap<>();
+    private final Map<Media, Deque<Featurable>> released = new HashMap<>();
+    private final Spawner spawner;
+    private final Handler handler;
+
+    /**
+     * Create pool.
+     * 
+     * @param services The services reference.
+     */
+    public FeaturablePool(Services services)
+    {
+        super();
+
+        spawner = services.get(Spawner.class);
+        handler = services.get(Handler.class);
+    }
+
+    /**
+     * Spawn featurable at location, reusing a parked one if any.
+     * 
+     * @param media The featurable media.
+     * @param location The spawn location.
+     * @return The spawned featurable.
+     */
+    public Featurable spawn(Media media, Localizable location)
+    {
+        final Deque<Featurable> available = parked.get(media);
+        if (available == null || available.isEmpty())
+        {
+            return spawner.spawn(media, location);
+        }
+        final Featurable featurable = available.poll();
+        for (final Feature feature : featurable.getFeatures())
+        {
+            if (feature instanceof Recyclable)
+            {
+                ((Recyclable) feature).recycle();
+            }
+        }
+        featurable.getFeature(Transformable.class).teleport(location.getX(), location.getY());
+        handler.add(featurable);
+        return featurable;
+    }
+
+    /**
+     * Release ended featurable, removing it from handler.
+     * 
+     * @param featurable The ended featurable.
+     */
+    public void release(Featurable featurable)
+    {
+        final Media media = featurable.getMedia();
+        final Deque<Featurable> available = parked.computeIfAbsent(media, m -> new ArrayDeque<>());
+        final Deque<Featurable> waiting = released.computeIfAbsent(media, m -> new ArrayDeque<>());
+        if (available.size() + waiting.size() < Prototypes.get(media).getPool())
+        {
+            handler.remove(featurable);
+            waiting.add(featurable);
+        }
+        else
+        {
+            featurable.getFeature(Identifiable.class).destroy();
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        for (final Map.Entry<Media, Deque<Featurable>> entry : released.entrySet())
+        {
+            final Deque<Featurable> waiting = entry.getValue();
+            if (!waiting.isEmpty())
+            {
+                parked.get(entry.getKey()).addAll(waiting);
+                waiting.clear();
+            }
+        }
+    }
+}
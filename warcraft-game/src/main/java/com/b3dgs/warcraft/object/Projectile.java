@@ -36,6 +36,7 @@ import com.b3dgs.lionengine.game.feature.tile.map.OrientableModel;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.object.feature.Impact;
 
 /**
  * Projectile implementation.
@@ -59,8 +60,9 @@ public final class Projectile extends FeaturableModel
         collidable.setOrigin(Origin.MIDDLE);
         collidable.setGroup(Integer.valueOf(Constant.LAYER_PROJECTILE));
         collidable.addAccept(Integer.valueOf(Constant.LAYER_ENTITY));
+        addFeature(new Impact(services, setup));
 
-        final SizeConfig config = SizeConfig.imports(setup);
+        final SizeConfig config = Prototypes.get(setup).getSize();
         final SpriteTiled sprite = Drawable.loadSpriteTiled(setup.getSurface(), config.getWidth(), config.getHeight());
         sprite.setOrigin(Origin.MIDDLE);
 
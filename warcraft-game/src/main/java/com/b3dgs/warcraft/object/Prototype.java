@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.object;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Range;
+import com.b3dgs.lionengine.game.AnimationConfig;
+import com.b3dgs.lionengine.game.Configurer;
+import com.b3dgs.lionengine.game.FramesConfig;
+import com.b3dgs.lionengine.game.SizeConfig;
+import com.b3dgs.lionengine.game.feature.LayerableConfig;
+import com.b3dgs.lionengine.game.feature.attackable.AttackerConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FovableConfig;
+import com.b3dgs.warcraft.Race;
+import com.b3dgs.warcraft.Sfx;
+import com.b3dgs.warcraft.constant.Constant;
+
+/**
+ * Featurable data read once from its configuration, shared by all instances of the same media.
+ * <p>
+ * Every value is resolved on creation into final fields and the configuration is not kept, so a prototype is
+ * immutable and can be shared by all worlds and read from any thread.
+ * </p>
+ */
+public final class Prototype
+{
+    private static final String NODE_NAME = "name";
+    private static final String NODE_UNLOCK = "unlock";
+    private static final String ATT_VALUES = "values";
+    private static final String NODE_POOL = "pool";
+    private static final String ATT_SIZE = "size";
+    private static final List<String> SFX = Arrays.asList(Sfx.ATT_STARTED,
+                                                          Sfx.ATT_PRODUCED,
+                                                          Sfx.ATT_SELECTED,
+                                                          Sfx.ATT_ORDERED,
+                                                          Sfx.ATT_ATTACKED,
+                                                          Sfx.ATT_DEAD);
+
+    /**
+     * Get race from media folder.
+     * 
+     * @param media The media reference.
+     * @return The race.
+     */
+    private static Race getRace(Media media)
+    {
+        final String path = media.getParentPath();
+        if (path.contains(Race.ORC.name().toLowerCase(Locale.ENGLISH)))
+        {
+            return Race.ORC;
+        }
+        else if (path.contains(Race.HUMAN.name().toLowerCase(Locale.ENGLISH)))
+        {
+            return Race.HUMAN;
+        }
+        return Race.NEUTRAL;
+    }
+
+    private final Map<String, List<Sfx>> sfx;
+    private final Race race;
+    private final boolean mover;
+    private final String name;
+    private final CostConfig cost;
+    private final StatsConfig stats;
+    private final LayerableConfig layerable;
+    private final AttackerConfig attacker;
+    private final Range damages;
+    private final AnimationConfig animations;
+    private final FramesConfig frames;
+    private final SizeConfig size;
+    private final int fov;
+    private final Set<String> unlocks;
+    private final int pool;
+
+    /**
+     * Create prototype.
+     * 
+     * @param configurer The configuration reference.
+     */
+    Prototype(Configurer configurer)
+    {
+        super();
+
+        race = getRace(configurer.getMedia());
+        mover = configurer.hasNode(PathfindableConfig.NODE_PATHFINDABLE);
+        name = configurer.hasNode(NODE_NAME) ? configurer.getText(NODE_NAME).toUpperCase(Locale.ENGLISH) : null;
+        cost = configurer.hasNode(CostConfig.NODE_COST) ? CostConfig.imports(configurer) : null;
+        stats = configurer.hasNode(StatsConfig.NODE_STATS) ? StatsConfig.imports(configurer) : null;
+        layerable = configurer.hasNode(LayerableConfig.NODE_LAYERABLE) ? LayerableConfig.imports(configurer) : null;
+        attacker = configurer.hasNode(AttackerConfig.NODE_ATTACKER) ? AttackerConfig.imports(configurer) : null;
+        damages = attacker != null ? attacker.getDamages() : null;
+        animations = configurer.hasNode(AnimationConfig.NODE_ANIMATIONS) ? AnimationConfig.imports(configurer) : null;
+        frames = configurer.hasNode(FramesConfig.NODE_FRAMES) ? FramesConfig.imports(configurer) : null;
+        size = configurer.hasNode(SizeConfig.NODE_SIZE) ? SizeConfig.imports(configurer) : null;
+        fov = configurer.hasNode(FovableConfig.NODE_FOVABLE) ? FovableConfig.imports(configurer) : 0;
+        if (configurer.hasNode(NODE_UNLOCK))
+        {
+            final String[] values = configurer.getString(ATT_VALUES, NODE_UNLOCK).split(Constant.SFX_SEPARATOR);
+            unlocks = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(values)));
+        }
+        else
+        {
+            unlocks = Collections.emptySet();
+        }
+        pool = configurer.getIntegerDefault(0, ATT_SIZE, NODE_POOL);
+
+        final Map<String, List<Sfx>> sounds = new HashMap<>();
+        for (final String attribute : SFX)
+        {
+            sounds.put(attribute, Collections.unmodifiableList(Sfx.load(configurer, attribute)));
+        }
+        sfx = Collections.unmodifiableMap(sounds);
+    }
+
+    /**
+     * Get the race, from media folder.
+     * 
+     * @return The race.
+     */
+    public Race getRace()
+    {
+        return race;
+    }
+
+    /**
+     * Check if is mover.
+     * 
+     * @return <code>true</code> if mover, <code>false</code> else.
+     */
+    public boolean isMover()
+    {
+        return mover;
+    }
+
+    /**
+     * Get the upper case name.
+     * 
+     * @return The name, <code>null</code> if none.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the cost.
+     * 
+     * @return The cost, <code>null</code> if none.
+     */
+    public CostConfig getCost()
+    {
+        return cost;
+    }
+
+    /**
+     * Get the stats.
+     * 
+     * @return The stats, <code>null</code> if none.
+     */
+    public StatsConfig getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * Get the layers.
+     * 
+     * @return The layers, <code>null</code> if none.
+     */
+    public LayerableConfig getLayerable()
+    {
+        return layerable;
+    }
+
+    /**
+     * Get the attacker configuration.
+     * 
+     * @return The attacker configuration, <code>null</code> if none.
+     */
+    public AttackerConfig getAttacker()
+    {
+        return attacker;
+    }
+
+    /**
+     * Get the attack damages.
+     * 
+     * @return The damages range, <code>null</code> if none.
+     */
+    public Range getDamages()
+    {
+        return damages;
+    }
+
+    /**
+     * Get the animations.
+     * 
+     * @return The animations, <code>null</code> if none.
+     */
+    public AnimationConfig getAnimations()
+    {
+        return animations;
+    }
+
+    /**
+     * Get the surface frames.
+     * 
+     * @return The frames, <code>null</code> if none.
+     */
+    public FramesConfig getFrames()
+    {
+        return frames;
+    }
+
+    /**
+     * Get the size.
+     * 
+     * @return The size, <code>null</code> if none.
+     */
+    public SizeConfig getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the field of view.
+     * 
+     * @return The field of view in tile, <code>0</code> if none.
+     */
+    public int getFov()
+    {
+        return fov;
+    }
+
+    /**
+     * Get the unlocked values once produced.
+     * 
+     * @return The unlocks (unmodifiable).
+     */
+    public Set<String> getUnlocks()
+    {
+        return unlocks;
+    }
+
+    /**
+     * Get the number of released instances kept for reuse.
+     * 
+     * @return The pool size, <code>0</code> if not pooled.
+     */
+    public int getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Get the sounds of attribute.
+     * 
+     * @param attribute The sfx attribute name.
+     * @return The sounds (unmodifiable), empty if none.
+     */
+    public List<Sfx> getSfx(String attribute)
+    {
+        return sfx.getOrDefault(attribute, Collections.emptyList());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.object;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.Configurer;
+import com.b3dgs.lionengine.game.feature.Setup;
+
+/**
+ * Prototypes by media, each configuration being read once and shared by all worlds.
+ * <p>
+ * Prototypes are immutable, so they can be created ahead by preload tasks and read from any thread.
+ * </p>
+ */
+public final class Prototypes
+{
+    private static final Map<Media, Prototype> PROTOTYPES = new ConcurrentHashMap<>();
+
+    /**
+     * Get the prototype of setup, reusing its loaded configuration.
+     * 
+     * @param setup The setup reference.
+     * @return The prototype.
+     */
+    public static Prototype get(Setup setup)
+    {
+        return PROTOTYPES.computeIfAbsent(setup.getMedia(), m -> new Prototype(setup));
+    }
+
+    /**
+     * Get the prototype of media, loading its configuration on first access.
+     * 
+     * @param media The featurable media.
+     * @return The prototype.
+     * @throws LionEngineException If invalid configuration.
+     */
+    public static Prototype get(Media media)
+    {
+        return PROTOTYPES.computeIfAbsent(media, m -> new Prototype(new Configurer(m)));
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Prototypes()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
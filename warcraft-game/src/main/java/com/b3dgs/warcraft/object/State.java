@@ -78,6 +78,7 @@ public abstract class State extends StateAbstract
     public void enter()
     {
         animatable.play(animation);
+        model.notifyChanged();
     }
 
     @Override
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.object;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.FramesConfig;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.drawable.Drawable;
+import com.b3dgs.lionengine.graphic.drawable.Image;
+import com.b3dgs.lionengine.graphic.drawable.SpriteAnimated;
+import com.b3dgs.warcraft.Util;
+import com.b3dgs.warcraft.constant.Gfx;
+
+/**
+ * Surfaces shared by all instances of the same type, keyed by media.
+ * <p>
+ * Sprites are created on the shared setup surface with frames of the media prototype, so each instance only owns its
+ * animation, location and mirror state. Images drawn at a fixed location, such as hud icons, are fully shared.
+ * </p>
+ * <p>
+ * Setup sheets and icons may be loaded ahead with {@link #preload(Setup)}, from any thread, and are then kept for all
+ * worlds.
+ * </p>
+ */
+public class SurfaceCache
+{
+    /** Preloaded sheets by setup media. */
+    private static final Map<Media, ImageBuffer> SHEETS = new ConcurrentHashMap<>();
+    /** Preloaded icons by setup media. */
+    private static final Map<Media, ImageBuffer> ICONS = new ConcurrentHashMap<>();
+
+    /**
+     * Load setup sheet and icon ahead.
+     * 
+     * @param setup The setup reference.
+     */
+    public static void preload(Setup setup)
+    {
+        SHEETS.put(setup.getMedia(), setup.getSurface());
+
+        final Media media = setup.getIcon();
+        if (media != null)
+        {
+            final Image icon = Drawable.loadImage(media);
+            icon.load();
+            ICONS.put(setup.getMedia(), icon.getSurface());
+        }
+    }
+
+    /**
+     * Get the setup sheet, preloaded one if any.
+     * 
+     * @param setup The setup reference.
+     * @return The setup sheet.
+     */
+    private static ImageBuffer getSheet(Setup setup)
+    {
+        final ImageBuffer sheet = SHEETS.get(setup.getMedia());
+        if (sheet == null)
+        {
+            return setup.getSurface();
+        }
+        return sheet;
+    }
+
+    private final Map<Media, Image> icons = new HashMap<>();
+    private final Map<Gfx, Image> images = new EnumMap<>(Gfx.class);
+
+    /**
+     * Create cache.
+     */
+    public SurfaceCache()
+    {
+        super();
+    }
+
+    /**
+     * Create a sprite on the shared setup surface.
+     * 
+     * @param setup The setup reference.
+     * @return The sprite instance, with frame offsets applied.
+     */
+    public SpriteAnimated getSprite(Setup setup)
+    {
+        final FramesConfig config = Prototypes.get(setup).getFrames();
+        final SpriteAnimated sprite = Drawable.loadSpriteAnimated(getSheet(setup),
+                                                                  config.getHorizontal(),
+                                                                  config.getVertical());
+        sprite.setFrameOffsets(config.getOffsetX(), config.getOffsetY());
+        return sprite;
+    }
+
+    /**
+     * Get the shared setup icon.
+     * 
+     * @param setup The setup reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The shared icon, located on first access.
+     */
+    public Image getIcon(Setup setup, int x, int y)
+    {
+        return icons.computeIfAbsent(setup.getMedia(), m ->
+        {
+            final ImageBuffer preloaded = ICONS.get(m);
+            final Image icon;
+            if (preloaded == null)
+            {
+                icon = Drawable.loadImage(setup.getIcon());
+            }
+            else
+            {
+                icon = Drawable.loadImage(preloaded);
+            }
+            icon.setLocation(x, y);
+            return icon;
+        });
+    }
+
+    /**
+     * Get the shared gfx image.
+     * 
+     * @param gfx The image gfx.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The shared image, located on first access.
+     */
+    public Image getImage(Gfx gfx, int x, int y)
+    {
+        return images.computeIfAbsent(gfx, g -> Util.getImage(g, x, y));
+    }
+}
@@ -16,13 +16,12 @@
  */
 package com.b3dgs.warcraft.object.feature;
 
-import com.b3dgs.lionengine.Tick;
+import java.util.function.BooleanSupplier;
+
 import com.b3dgs.lionengine.Updatable;
-import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
-import com.b3dgs.lionengine.game.feature.Handler;
 import com.b3dgs.lionengine.game.feature.Recyclable;
 import com.b3dgs.lionengine.game.feature.Routine;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -31,29 +30,51 @@ import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.attackable.Attacker;
 import com.b3dgs.lionengine.game.feature.state.StateHandler;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.Fovable;
-import com.b3dgs.warcraft.Race;
 import com.b3dgs.warcraft.Util;
+import com.b3dgs.warcraft.object.Prototypes;
+import com.b3dgs.warcraft.world.EntityIndex;
+import com.b3dgs.warcraft.world.PathQueue;
+import com.b3dgs.warcraft.world.ScanQueue;
+import com.b3dgs.warcraft.world.Timer;
+import com.b3dgs.warcraft.world.TimerWheel;
 
 /**
  * Check around to attack automatically on sight when idle.
+ * <p>
+ * Target is searched once a scan is granted, and attacked on update if both entities are still alive.
+ * </p>
+ * <p>
+ * Searches are granted by the {@link ScanQueue}. Search also looks {@value #AGGRO_MARGIN} tiles beyond sight: entity
+ * with an enemy there is alerted and searches again after {@value #CHECK_DELAY} ticks with priority, others after
+ * {@value #SAFE_DELAY} ticks. A busy entity is not searched and requests again after {@value #CHECK_DELAY} ticks, and
+ * a damaged entity is alerted and requests at once.
+ * </p>
  */
 @FeatureInterface
 public class AutoAttack extends FeatureModel implements Routine, Recyclable
 {
     private static final int CHECK_DELAY = 30;
+    private static final int SAFE_DELAY = 120;
+    private static final int AGGRO_MARGIN = 4;
 
-    private final Tick tick = new Tick();
-    private final Updatable checker;
+    private final EntityIndex index = services.get(EntityIndex.class);
+    private final PathQueue paths = services.get(PathQueue.class);
+    private final TimerWheel timers = services.get(TimerWheel.class);
+    private final ScanQueue scans = services.get(ScanQueue.class);
 
-    private final MapTilePath mapPath = services.get(MapTilePath.class);
-    private final Handler handler = services.get(Handler.class);
+    private final int sight;
+    private final BooleanSupplier grant;
+    private final Timer check;
+    private final Updatable checker;
 
+    private boolean active;
     private boolean force;
+    private boolean alert;
+    private boolean decided;
+    private int delay;
+    private Transformable decision;
 
-    @FeatureGet private Fovable fovable;
     @FeatureGet private Attacker attacker;
     @FeatureGet private Pathfindable pathfindable;
     @FeatureGet private Transformable transformable;
@@ -71,19 +92,44 @@ public class AutoAttack extends FeatureModel implements Routine, Recyclable
         super(services, setup);
 
         final MapTile map = services.get(MapTile.class);
+        sight = Prototypes.get(setup).getFov() - 1;
+        grant = () ->
+        {
+            if (active)
+            {
+                decide();
+            }
+            return active;
+        };
+        check = new Timer(() -> scans.request(grant, alert));
         checker = extrp ->
         {
-            tick.update(extrp);
-            if (canAutoAttack())
+            if (decided)
             {
-                final Transformable target = findTarget();
+                final Transformable target = decision;
+                decided = false;
+                decision = null;
                 if (target != null
-                    && (Util.getDistanceInTile(map, transformable, target) < 1.5
-                        || pathfindable.setDestination(target)))
+                    && stats.getHealthPercent() > 0
+                    && target.getFeature(EntityStats.class).getHealthPercent() > 0)
                 {
-                    attacker.attack(target);
+                    if (Util.getDistanceInTile(map, transformable, target) < 1.5)
+                    {
+                        attacker.attack(target);
+                    }
+                    else
+                    {
+                        paths.request(pathfindable, () ->
+                        {
+                            if (target.getFeature(EntityStats.class).getHealthPercent() > 0
+                                && pathfindable.setDestination(target))
+                            {
+                                attacker.attack(target);
+                            }
+                        });
+                    }
                 }
-                tick.restart();
+                timers.schedule(check, delay);
             }
         };
     }
@@ -99,86 +145,65 @@ public class AutoAttack extends FeatureModel implements Routine, Recyclable
     }
 
     /**
-     * Check if can auto attack.
-     * 
-     * @return <code>true</code> if can auto attack, <code>false</code> else.
+     * Alert entity, requesting a priority search at once if none in progress.
      */
-    private boolean canAutoAttack()
+    public void alert()
     {
-        return tick.elapsed(CHECK_DELAY)
-               && stats.getHealthPercent() > 0
-               && (force || !pathfindable.isMoving())
-               && (attacker.getTarget() == null
-                   || attacker.getTarget().getFeature(EntityStats.class).getHealthPercent() == 0);
+        alert = true;
+        if (check.isPending() && stats.getHealthPercent() > 0)
+        {
+            check.cancel();
+            scans.request(grant, true);
+        }
     }
 
     /**
-     * Find closest target on sight.
-     * 
-     * @return The target found, <code>null</code> if none.
+     * Stop searching, when entity is removed.
      */
-    private Transformable findTarget()
+    public void stop()
     {
-        int ray = 1;
-        while (ray < fovable.getInTileFov())
-        {
-            final Transformable transformable = findTarget(ray);
-            if (transformable != null)
-            {
-                return transformable;
-            }
-            ray++;
-        }
-        return null;
+        active = false;
+        check.cancel();
     }
 
     /**
-     * Find closest target with the specified ray search.
+     * Check if can auto attack.
      * 
-     * @param ray The ray search.
-     * @return The target found, <code>null</code> if none.
+     * @return <code>true</code> if can auto attack, <code>false</code> else.
      */
-    private Transformable findTarget(int ray)
+    private boolean canAutoAttack()
     {
-        for (int ox = -ray; ox <= ray; ox++)
-        {
-            for (int oy = -ray; oy <= ray; oy++)
-            {
-                final Transformable target = findTarget(ox, oy);
-                if (target != null)
-                {
-                    return target;
-                }
-            }
-        }
-        return null;
+        return stats.getHealthPercent() > 0
+               && !paths.isPending(pathfindable)
+               && (force || !pathfindable.isMoving())
+               && (attacker.getTarget() == null
+                   || attacker.getTarget().getFeature(EntityStats.class).getHealthPercent() == 0);
     }
 
     /**
-     * Find closest target on location.
-     * 
-     * @param ox The horizontal location offset.
-     * @param oy The vertical location offset.
-     * @return The target found, <code>null</code> if none.
+     * Search target from current world state, applied on next update.
      */
-    private Transformable findTarget(int ox, int oy)
+    private void decide()
     {
-        final int tx = pathfindable.getInTileX();
-        final int ty = pathfindable.getInTileY();
-        if (ox != 0 && oy != 0)
+        decision = null;
+        if (canAutoAttack())
         {
-            for (final Integer id : mapPath.getObjectsId(tx + ox, ty + oy))
+            final int tx = pathfindable.getInTileX();
+            final int ty = pathfindable.getInTileY();
+            final Transformable closest = index.getClosestEnemy(stats.getRace(), tx, ty, sight + AGGRO_MARGIN);
+
+            alert = closest != null;
+            if (alert && EntityIndex.getDistance(tx, ty, closest.getFeature(Pathfindable.class)) <= sight)
             {
-                final Featurable featurable = handler.get(id);
-                final EntityStats statsTarget = featurable.getFeature(EntityStats.class);
-                final Race race = statsTarget.getRace();
-                if (!race.equals(Race.NEUTRAL) && !stats.getRace().equals(race) && statsTarget.getHealthPercent() > 0)
-                {
-                    return featurable.getFeature(Transformable.class);
-                }
+                decision = closest;
             }
+            delay = alert ? CHECK_DELAY : SAFE_DELAY;
+        }
+        else
+        {
+            delay = CHECK_DELAY;
         }
-        return null;
+        decided = true;
     }
 
     @Override
@@ -190,7 +215,11 @@ public class AutoAttack extends FeatureModel implements Routine, Recyclable
     @Override
     public void recycle()
     {
+        active = true;
         force = false;
-        tick.restart();
+        decided = false;
+        decision = null;
+        alert = false;
+        timers.schedule(check, scans.getStagger(CHECK_DELAY));
     }
 }
@@ -17,6 +17,7 @@
 package com.b3dgs.warcraft.object.feature;
 
 import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Range;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
@@ -26,6 +27,8 @@ import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.attackable.Attacker;
 import com.b3dgs.lionengine.game.feature.attackable.AttackerListenerVoid;
+import com.b3dgs.warcraft.Rng;
+import com.b3dgs.warcraft.object.Prototypes;
 
 /**
  * Represents ability fight with close combat.
@@ -43,8 +46,13 @@ public class CloseCombat extends FeatureModel
     public CloseCombat(Services services, Setup setup)
     {
         super(services, setup);
+
+        damages = Prototypes.get(setup).getDamages();
     }
 
+    private final Rng rng = services.get(Rng.class);
+    private final Range damages;
+
     @FeatureGet private Attacker attacker;
     @FeatureGet private EntitySfx sfx;
 
@@ -59,11 +67,21 @@ public class CloseCombat extends FeatureModel
             public void notifyAttackEnded(Transformable target, int damages)
             {
                 sfx.onAttacked();
-                if (target.getFeature(EntityStats.class).applyDamages(damages))
+                if (target.getFeature(EntityStats.class).applyDamages(rollDamages()))
                 {
                     attacker.stopAttack();
                 }
             }
         });
     }
+
+    /**
+     * Roll attack damages from the simulation stream.
+     * 
+     * @return The damages.
+     */
+    private int rollDamages()
+    {
+        return rng.getSimulationInteger(damages.getMin(), damages.getMax());
+    }
 }
@@ -17,42 +17,44 @@
 package com.b3dgs.warcraft.object.feature;
 
 import com.b3dgs.lionengine.AnimState;
+import com.b3dgs.lionengine.AnimatorStateListener;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
-import com.b3dgs.lionengine.Tick;
-import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.Animatable;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Recyclable;
-import com.b3dgs.lionengine.game.feature.Routine;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.Spawner;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.state.StateHandler;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.warcraft.object.FeaturablePool;
 import com.b3dgs.warcraft.object.state.StateDead;
 import com.b3dgs.warcraft.object.state.StateDeadGold;
 import com.b3dgs.warcraft.object.state.StateDeadWood;
+import com.b3dgs.warcraft.world.Timer;
+import com.b3dgs.warcraft.world.TimerWheel;
 
 /**
  * Represents something that can decay.
+ * <p>
+ * Corpse is scheduled when the dead animation ends, instead of being checked on each update.
+ * </p>
  */
 @FeatureInterface
-public class Decayable extends FeatureModel implements Routine, Recyclable
+public class Decayable extends FeatureModel implements Recyclable
 {
     private static final String NODE_DECAY = "decay";
     private static final String ATT_CORPSE = "corpse";
     private static final String ATT_DELAY = "delay";
 
-    private final Tick tick = new Tick();
-    private final Updatable checkDead;
-    private final Updatable checkCorpse;
-
-    private Updatable check;
+    private final TimerWheel timers = services.get(TimerWheel.class);
+    private final Timer corpse;
+    private final int delay;
 
     @FeatureGet private Identifiable identifiable;
     @FeatureGet private Transformable transformable;
@@ -71,31 +73,18 @@ public class Decayable extends FeatureModel implements Routine, Recyclable
     {
         super(services, setup);
 
-        final Spawner spawner = services.get(Spawner.class);
+        final FeaturablePool pool = services.get(FeaturablePool.class);
 
-        final int delay = setup.getIntegerDefault(0, ATT_DELAY, NODE_DECAY);
+        delay = setup.getIntegerDefault(0, ATT_DELAY, NODE_DECAY);
         final Media media = Medias.create(setup.getString(ATT_CORPSE, NODE_DECAY));
 
-        checkCorpse = extrp ->
+        corpse = new Timer(() ->
         {
-            tick.update(extrp);
-            if (tick.elapsed(delay))
-            {
-                ((com.b3dgs.warcraft.object.Effect) spawner.spawn(media,
-                                                                  transformable)).start(transformable.getWidth(),
-                                                                                        transformable.getHeight());
-                pathfindable.clearPath();
-                identifiable.destroy();
-            }
-        };
-        checkDead = extrp ->
-        {
-            if (!tick.isStarted() && animatable.is(AnimState.FINISHED) && isDead())
-            {
-                tick.start();
-                check = checkCorpse;
-            }
-        };
+            ((com.b3dgs.warcraft.object.Effect) pool.spawn(media, transformable)).start(transformable.getWidth(),
+                                                                                      transformable.getHeight());
+            pathfindable.clearPath();
+            identifiable.destroy();
+        });
     }
 
     /**
@@ -111,15 +100,22 @@ public class Decayable extends FeatureModel implements Routine, Recyclable
     }
 
     @Override
-    public void update(double extrp)
+    public void prepare(FeatureProvider provider)
     {
-        check.update(extrp);
+        super.prepare(provider);
+
+        animatable.addListener((AnimatorStateListener) state ->
+        {
+            if (AnimState.FINISHED == state && !corpse.isPending() && isDead())
+            {
+                timers.schedule(corpse, delay);
+            }
+        });
     }
 
     @Override
     public void recycle()
     {
-        tick.stop();
-        check = checkDead;
+        corpse.cancel();
     }
 }
@@ -27,9 +27,12 @@ import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
 import com.b3dgs.warcraft.Player;
+import com.b3dgs.warcraft.Rng;
 import com.b3dgs.warcraft.Sfx;
+import com.b3dgs.warcraft.object.Prototype;
+import com.b3dgs.warcraft.object.Prototypes;
+import com.b3dgs.warcraft.world.FieldOfView;
 
 /**
  * Represents sound handler.
@@ -37,12 +40,6 @@ import com.b3dgs.warcraft.Sfx;
 @FeatureInterface
 public class EntitySfx extends FeatureModel
 {
-    private static final String ATT_STARTED = "started";
-    private static final String ATT_PRODUCED = "produced";
-    private static final String ATT_SELECTED = "selected";
-    private static final String ATT_ORDERED = "ordered";
-    private static final String ATT_ATTACKED = "attacked";
-
     private final List<Sfx> started;
     private final List<Sfx> produced;
     private final List<Sfx> selected;
@@ -52,7 +49,8 @@ public class EntitySfx extends FeatureModel
 
     private final Viewer viewer = services.get(Viewer.class);
     private final Player player = services.get(Player.class);
-    private final FogOfWar fogOfWar = services.get(FogOfWar.class);
+    private final FieldOfView fieldOfView = services.get(FieldOfView.class);
+    private final Rng rng = services.get(Rng.class);
 
     @FeatureGet private Transformable transformable;
     @FeatureGet private Pathfindable pathfindable;
@@ -68,12 +66,13 @@ public class EntitySfx extends FeatureModel
     {
         super(services, setup);
 
-        started = Sfx.load(setup, ATT_STARTED);
-        produced = Sfx.load(setup, ATT_PRODUCED);
-        selected = Sfx.load(setup, ATT_SELECTED);
-        ordered = Sfx.load(setup, ATT_ORDERED);
-        attacked = Sfx.load(setup, ATT_ATTACKED);
-        dead = Sfx.load(setup, Sfx.ATT_DEAD);
+        final Prototype prototype = Prototypes.get(setup);
+        started = prototype.getSfx(Sfx.ATT_STARTED);
+        produced = prototype.getSfx(Sfx.ATT_PRODUCED);
+        selected = prototype.getSfx(Sfx.ATT_SELECTED);
+        ordered = prototype.getSfx(Sfx.ATT_ORDERED);
+        attacked = prototype.getSfx(Sfx.ATT_ATTACKED);
+        dead = prototype.getSfx(Sfx.ATT_DEAD);
     }
 
     /**
@@ -83,7 +82,7 @@ public class EntitySfx extends FeatureModel
     {
         if (isVisible())
         {
-            Sfx.playRandom(started);
+            Sfx.playRandom(rng, started);
         }
     }
 
@@ -94,7 +93,7 @@ public class EntitySfx extends FeatureModel
     {
         if (isVisible() && player.owns(this))
         {
-            Sfx.playRandom(produced);
+            Sfx.playRandom(rng, produced);
         }
     }
 
@@ -105,7 +104,7 @@ public class EntitySfx extends FeatureModel
     {
         if (isVisible() && player.owns(this))
         {
-            Sfx.playRandom(selected);
+            Sfx.playRandom(rng, selected);
         }
     }
 
@@ -116,7 +115,7 @@ public class EntitySfx extends FeatureModel
     {
         if (isVisible())
         {
-            Sfx.playRandom(ordered);
+            Sfx.playRandom(rng, ordered);
         }
     }
 
@@ -127,7 +126,7 @@ public class EntitySfx extends FeatureModel
     {
         if (isVisible())
         {
-            Sfx.playRandom(attacked);
+            Sfx.playRandom(rng, attacked);
         }
     }
 
@@ -138,7 +137,7 @@ public class EntitySfx extends FeatureModel
     {
         if (isVisible())
         {
-            Sfx.playRandom(dead);
+            Sfx.playRandom(rng, dead);
         }
     }
 
@@ -149,6 +148,6 @@ public class EntitySfx extends FeatureModel
      */
     private boolean isVisible()
     {
-        return viewer.isViewable(transformable, 0, 0) && fogOfWar.isVisible(pathfindable);
+        return viewer.isViewable(transformable, 0, 0) && fieldOfView.isVisible(pathfindable);
     }
 }
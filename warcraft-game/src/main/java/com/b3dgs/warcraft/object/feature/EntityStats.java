@@ -16,8 +16,6 @@
  */
 package com.b3dgs.warcraft.object.feature;
 
-import java.util.Locale;
-
 import com.b3dgs.lionengine.Align;
 import com.b3dgs.lionengine.game.Alterable;
 import com.b3dgs.lionengine.game.Bar;
@@ -25,24 +23,23 @@ import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Layerable;
-import com.b3dgs.lionengine.game.feature.LayerableConfig;
 import com.b3dgs.lionengine.game.feature.Recyclable;
 import com.b3dgs.lionengine.game.feature.Routine;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.producible.Producer;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableConfig;
 import com.b3dgs.lionengine.graphic.Graphic;
-import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.Image;
 import com.b3dgs.lionengine.graphic.drawable.SpriteFont;
 import com.b3dgs.warcraft.Player;
 import com.b3dgs.warcraft.ProduceProgress;
 import com.b3dgs.warcraft.Race;
-import com.b3dgs.warcraft.Util;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Gfx;
-import com.b3dgs.warcraft.object.StatsConfig;
+import com.b3dgs.warcraft.object.EntityUpdater;
+import com.b3dgs.warcraft.object.Prototype;
+import com.b3dgs.warcraft.object.Prototypes;
+import com.b3dgs.warcraft.object.SurfaceCache;
 
 /**
  * Icon renderer feature.
@@ -50,8 +47,6 @@ import com.b3dgs.warcraft.object.StatsConfig;
 @FeatureInterface
 public class EntityStats extends FeatureModel implements Routine, Recyclable
 {
-    private static final String NODE_NAME = "name";
-
     private static final int ENTITY_INFO_MARGIN = 4;
     private static final int TEXT_X = 6;
     private static final int TEXT_Y = 98;
@@ -60,7 +55,8 @@ public class EntityStats extends FeatureModel implements Routine, Recyclable
     private static final int BAR_HEALTH_X = 31;
     private static final int BAR_HEALTH_Y = 16;
 
-    private final Image stats = Util.getImage(Gfx.HUD_STATS, Constant.ENTITY_INFO_X, Constant.ENTITY_INFO_Y);
+    private final SurfaceCache surfaces = services.get(SurfaceCache.class);
+    private final Image stats = surfaces.getImage(Gfx.HUD_STATS, Constant.ENTITY_INFO_X, Constant.ENTITY_INFO_Y);
     private final Bar barHealth = new Bar(BAR_HEALTH_WIDTH, BAR_HEALTH_HEIGHT);
     private final Alterable health;
     private final String name;
@@ -87,43 +83,30 @@ public class EntityStats extends FeatureModel implements Routine, Recyclable
     {
         super(services, setup);
 
-        final String path = setup.getMedia().getParentPath();
-        if (path.contains(Race.ORC.name().toLowerCase(Locale.ENGLISH)))
-        {
-            race = Race.ORC;
-        }
-        else if (path.contains(Race.HUMAN.name().toLowerCase(Locale.ENGLISH)))
-        {
-            race = Race.HUMAN;
-        }
-        else
-        {
-            race = Race.NEUTRAL;
-        }
-        mover = setup.hasNode(PathfindableConfig.NODE_PATHFINDABLE);
-
-        final LayerableConfig layerableConfig = LayerableConfig.imports(setup);
-        layerRefresh = Integer.valueOf(layerableConfig.getLayerRefresh());
-        layerDisplay = Integer.valueOf(layerableConfig.getLayerDisplay());
+        final Prototype prototype = Prototypes.get(setup);
+        race = prototype.getRace();
+        mover = prototype.isMover();
+        layerRefresh = Integer.valueOf(prototype.getLayerable().getLayerRefresh());
+        layerDisplay = Integer.valueOf(prototype.getLayerable().getLayerDisplay());
 
-        final StatsConfig config = StatsConfig.imports(setup);
-        health = new Alterable(config.getHealth());
+        health = new Alterable(prototype.getStats().getHealth());
         if (Constant.DEBUG)
         {
             health.setMax(10);
         }
 
-        icon = Drawable.loadImage(setup.getIcon());
-        icon.setLocation(Constant.ENTITY_INFO_X + ENTITY_INFO_MARGIN, Constant.ENTITY_INFO_Y + ENTITY_INFO_MARGIN);
+        icon = surfaces.getIcon(setup,
+                                Constant.ENTITY_INFO_X + ENTITY_INFO_MARGIN,
+                                Constant.ENTITY_INFO_Y + ENTITY_INFO_MARGIN);
 
-        name = setup.getText(NODE_NAME).toUpperCase(Locale.ENGLISH);
+        name = prototype.getName();
 
         barHealth.setColorForeground(Constant.COLOR_HEALTH_GOOD);
         barHealth.setLocation((int) (icon.getX() + BAR_HEALTH_X), (int) (icon.getY() + BAR_HEALTH_Y));
     }
 
     /**
-     * Apply damages.
+     * Apply damages, alerting auto attack if any.
      * 
      * @param damages The damages to apply.
      * @return <code>true</code> if empty health, <code>false</code> else.
@@ -132,6 +115,11 @@ public class EntityStats extends FeatureModel implements Routine, Recyclable
     {
         health.decrease(damages);
         updateHealthBar();
+        getFeature(EntityUpdater.class).wake();
+        if (hasFeature(AutoAttack.class))
+        {
+            getFeature(AutoAttack.class).alert();
+        }
         return health.isEmpty();
     }
 
@@ -145,9 +133,31 @@ public class EntityStats extends FeatureModel implements Routine, Recyclable
     {
         health.increase(value);
         updateHealthBar();
+        getFeature(EntityUpdater.class).wake();
         return health.isFull();
     }
 
+    /**
+     * Set current health.
+     * 
+     * @param value The health value.
+     */
+    public void setHealth(int value)
+    {
+        health.set(value);
+        updateHealthBar();
+    }
+
+    /**
+     * Get current health.
+     * 
+     * @return The current health.
+     */
+    public int getHealth()
+    {
+        return health.getCurrent();
+    }
+
     /**
      * Get current health percent.
      * 
@@ -16,6 +16,7 @@
  */
 package com.b3dgs.warcraft.object.feature;
 
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
@@ -24,10 +25,10 @@ import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Routine;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
-import com.b3dgs.lionengine.game.feature.Spawner;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
 import com.b3dgs.warcraft.constant.Folder;
+import com.b3dgs.warcraft.object.FeaturablePool;
 
 /**
  * Represents something that can explode.
@@ -35,7 +36,10 @@ import com.b3dgs.warcraft.constant.Folder;
 @FeatureInterface
 public class Explodable extends FeatureModel implements Routine
 {
-    private final Spawner spawner = services.get(Spawner.class);
+    private static final Media EXPLODE = Medias.create(Folder.EFFECTS, "explode.xml");
+    private static final Media CORPSE = Medias.create(Folder.EFFECTS, "corpse_building.xml");
+
+    private final FeaturablePool pool = services.get(FeaturablePool.class);
 
     @FeatureGet private Identifiable identifiable;
     @FeatureGet private Transformable transformable;
@@ -58,10 +62,8 @@ public class Explodable extends FeatureModel implements Routine
     {
         if (stats.getHealthPercent() == 0)
         {
-            ((com.b3dgs.warcraft.object.Effect) spawner.spawn(Medias.create(Folder.EFFECTS, "explode.xml"),
-                                                              transformable)).start(transformable.getWidth(), 0);
-            ((com.b3dgs.warcraft.object.Effect) spawner.spawn(Medias.create(Folder.EFFECTS, "corpse_building.xml"),
-                                                              transformable)).start(transformable.getWidth(), 0);
+            ((com.b3dgs.warcraft.object.Effect) pool.spawn(EXPLODE, transformable)).start(transformable.getWidth(), 0);
+            ((com.b3dgs.warcraft.object.Effect) pool.spawn(CORPSE, transformable)).start(transformable.getWidth(), 0);
             pathfindable.clearPath();
             identifiable.destroy();
         }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.object.feature;
+
+import java.util.function.Predicate;
+
+import com.b3dgs.lionengine.game.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.FeatureGet;
+import com.b3dgs.lionengine.game.feature.FeatureInterface;
+import com.b3dgs.lionengine.game.feature.FeatureModel;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Recyclable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.collidable.Collidable;
+import com.b3dgs.warcraft.world.Timer;
+import com.b3dgs.warcraft.world.TimerWheel;
+
+/**
+ * Represents a launched projectile impact.
+ * <p>
+ * Projectile is destroyed on its first accepted hit, or once its <code>lifetime</code> in ticks elapsed if it hits
+ * nothing, such as when its target moved away. Hit action is given on each launch, so a recycled projectile does not
+ * keep the listeners of its previous launches.
+ * </p>
+ */
+@FeatureInterface
+public class Impact extends FeatureModel implements Recyclable
+{
+    private static final String NODE_IMPACT = "impact";
+    private static final String ATT_LIFETIME = "lifetime";
+    private static final int LIFETIME_DEFAULT = 60;
+
+    private final TimerWheel timers = services.get(TimerWheel.class);
+    private final Timer expiry;
+    private final int lifetime;
+
+    private Predicate<Collidable> hit;
+
+    @FeatureGet private Identifiable identifiable;
+    @FeatureGet private Collidable collidable;
+
+    /**
+     * Create feature.
+     * 
+     * @param services The services reference.
+     * @param setup The setup reference.
+     */
+    public Impact(Services services, Setup setup)
+    {
+        super(services, setup);
+
+        lifetime = setup.getIntegerDefault(LIFETIME_DEFAULT, ATT_LIFETIME, NODE_IMPACT);
+        expiry = new Timer(this::end);
+    }
+
+    @Override
+    public void prepare(FeatureProvider provider)
+    {
+        super.prepare(provider);
+
+        collidable.addListener((other, with, by) ->
+        {
+            if (hit != null && hit.test(other))
+            {
+                end();
+            }
+        });
+    }
+
+    /**
+     * Start flying.
+     * 
+     * @param hit The hit action, <code>true</code> if hit accepted, <code>false</code> to ignore collision.
+     */
+    public void start(Predicate<Collidable> hit)
+    {
+        this.hit = hit;
+        timers.schedule(expiry, lifetime);
+    }
+
+    /**
+     * End flight and destroy projectile.
+     */
+    private void end()
+    {
+        hit = null;
+        expiry.cancel();
+        identifiable.destroy();
+    }
+
+    @Override
+    public void recycle()
+    {
+        hit = null;
+        expiry.cancel();
+    }
+}
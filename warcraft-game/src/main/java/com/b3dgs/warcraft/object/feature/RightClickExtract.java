@@ -33,6 +33,9 @@ import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
 import com.b3dgs.warcraft.Player;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.object.EntityModel;
+import com.b3dgs.warcraft.world.Command;
+import com.b3dgs.warcraft.world.CommandLog;
+import com.b3dgs.warcraft.world.PathQueue;
 
 /**
  * Right click extraction implementation.
@@ -45,6 +48,8 @@ public class RightClickExtract extends FeatureModel implements RightClickHandler
     private final MapTile map = services.get(MapTile.class);
     private final MapTilePath mapPath = map.getFeature(MapTilePath.class);
     private final Player player = services.get(Player.class);
+    private final PathQueue paths = services.get(PathQueue.class);
+    private final CommandLog commands = services.get(CommandLog.class);
 
     @FeatureGet private Extractor extractor;
     @FeatureGet private Pathfindable pathfindable;
@@ -71,36 +76,44 @@ public class RightClickExtract extends FeatureModel implements RightClickHandler
             {
                 final Extractable extractable = featurable.getFeature(Extractable.class);
                 extractor.setResource(extractable);
-                pathfindable.setDestination(extractable);
+                paths.request(pathfindable, extractable);
                 extractor.startExtraction();
             }
         }
     }
 
+    /**
+     * Go to tile, and extract its tree or goldmine if not carrying.
+     * 
+     * @param tx The horizontal resource tile.
+     * @param ty The vertical resource tile.
+     */
+    public void extract(int tx, int ty)
+    {
+        paths.request(pathfindable, tx, ty);
+
+        if (model.getCarryResource() == null)
+        {
+            extractor.stopExtraction();
+            final Tile tree = map.getTile(tx, ty);
+            if (Constant.CATEGORY_TREE.equals(mapPath.getCategory(tree)))
+            {
+                extractor.setResource(Constant.RESOURCE_WOOD, tree);
+                extractor.startExtraction();
+            }
+            else
+            {
+                extractGoldmine(tx, ty);
+            }
+        }
+    }
+
     @Override
     public void execute()
     {
         if (player.owns(this))
         {
-            final int tx = map.getInTileX(cursor);
-            final int ty = map.getInTileY(cursor);
-
-            pathfindable.setDestination(tx, ty);
-
-            if (model.getCarryResource() == null)
-            {
-                extractor.stopExtraction();
-                final Tile tree = map.getTile(tx, ty);
-                if (Constant.CATEGORY_TREE.equals(mapPath.getCategory(tree)))
-                {
-                    extractor.setResource(Constant.RESOURCE_WOOD, tree);
-                    extractor.startExtraction();
-                }
-                else
-                {
-                    extractGoldmine(tx, ty);
-                }
-            }
+            commands.issue(Command.EXTRACT, this, map.getInTileX(cursor), map.getInTileY(cursor));
             sfx.onOrdered();
         }
     }
@@ -23,8 +23,12 @@ import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.attackable.Attacker;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
 import com.b3dgs.warcraft.Player;
+import com.b3dgs.warcraft.world.Command;
+import com.b3dgs.warcraft.world.CommandLog;
+import com.b3dgs.warcraft.world.PathQueue;
 
 /**
  * Right click move implementation.
@@ -34,6 +38,9 @@ public class RightClickMove extends FeatureModel implements RightClickHandler
 {
     private final Cursor cursor = services.get(Cursor.class);
     private final Player player = services.get(Player.class);
+    private final MapTile map = services.get(MapTile.class);
+    private final PathQueue paths = services.get(PathQueue.class);
+    private final CommandLog commands = services.get(CommandLog.class);
 
     @FeatureGet private Pathfindable pathfindable;
     @FeatureGet private Attacker attacker;
@@ -50,13 +57,24 @@ public class RightClickMove extends FeatureModel implements RightClickHandler
         super(services, setup);
     }
 
+    /**
+     * Move to tile, stopping attack.
+     * 
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     */
+    public void move(int tx, int ty)
+    {
+        attacker.stopAttack();
+        paths.requestMove(pathfindable, tx, ty);
+    }
+
     @Override
     public void execute()
     {
         if (player.owns(this))
         {
-            attacker.stopAttack();
-            pathfindable.setDestination(cursor);
+            commands.issue(Command.MOVE_RIGHT, this, map.getInTileX(cursor), map.getInTileY(cursor));
             sfx.onOrdered();
         }
     }
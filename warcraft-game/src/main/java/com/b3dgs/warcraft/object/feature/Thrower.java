@@ -16,12 +16,14 @@
  */
 package com.b3dgs.warcraft.object.feature;
 
+import java.util.function.Predicate;
+
+import com.b3dgs.lionengine.Range;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.FeatureGet;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
-import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Routine;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
@@ -33,7 +35,9 @@ import com.b3dgs.lionengine.game.feature.launchable.LaunchableListener;
 import com.b3dgs.lionengine.game.feature.launchable.Launcher;
 import com.b3dgs.lionengine.game.feature.tile.map.Orientable;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.warcraft.Rng;
 import com.b3dgs.warcraft.Sfx;
+import com.b3dgs.warcraft.object.Prototypes;
 
 /**
  * Represents ability to throw something.
@@ -42,6 +46,10 @@ import com.b3dgs.warcraft.Sfx;
 public class Thrower extends FeatureModel implements Routine
 {
     private final Viewer viewer = services.get(Viewer.class);
+    private final Rng rng = services.get(Rng.class);
+    private final Range damages;
+
+    private Predicate<Collidable> hit;
 
     @FeatureGet private Attacker attacker;
     @FeatureGet private Launcher launcher;
@@ -58,6 +66,8 @@ public class Thrower extends FeatureModel implements Routine
     public Thrower(Services services, Setup setup)
     {
         super(services, setup);
+
+        damages = Prototypes.get(setup).getDamages();
     }
 
     @Override
@@ -65,6 +75,22 @@ public class Thrower extends FeatureModel implements Routine
     {
         super.prepare(provider);
 
+        hit = other ->
+        {
+            if (other == collidable)
+            {
+                return false;
+            }
+            if (viewer.isViewable(other.getFeature(Transformable.class), 0, 0))
+            {
+                Sfx.NEUTRAL_ARROWHIT.play();
+            }
+            if (other.getFeature(EntityStats.class).applyDamages(rollDamages()))
+            {
+                attacker.stopAttack();
+            }
+            return true;
+        };
         attacker.addListener(new AttackerListenerVoid()
         {
             @Override
@@ -77,24 +103,20 @@ public class Thrower extends FeatureModel implements Routine
         launcher.addListener((LaunchableListener) launchable ->
         {
             launchable.getFeature(Orientable.class).setOrientation(pathfindable.getOrientation());
-            launchable.getFeature(Collidable.class).addListener((other, w, b) ->
-            {
-                if (other != collidable)
-                {
-                    if (viewer.isViewable(other.getFeature(Transformable.class), 0, 0))
-                    {
-                        Sfx.NEUTRAL_ARROWHIT.play();
-                    }
-                    if (other.getFeature(EntityStats.class).applyDamages(attacker.getAttackDamages()))
-                    {
-                        attacker.stopAttack();
-                    }
-                    launchable.getFeature(Identifiable.class).destroy();
-                }
-            });
+            launchable.getFeature(Impact.class).start(hit);
         });
     }
 
+    /**
+     * Roll attack damages from the simulation stream.
+     * 
+     * @return The damages.
+     */
+    private int rollDamages()
+    {
+        return rng.getSimulationInteger(damages.getMin(), damages.getMax());
+    }
+
     @Override
     public void update(double extrp)
     {
@@ -28,6 +28,7 @@ import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
 import com.b3dgs.warcraft.object.EntityModel;
 import com.b3dgs.warcraft.object.State;
 import com.b3dgs.warcraft.object.feature.EntitySfx;
+import com.b3dgs.warcraft.world.PathQueue;
 
 /**
  * Die state implementation.
@@ -41,6 +42,7 @@ class StateDieBase extends State
     private final Attacker attacker = model.getFeature(Attacker.class);
     private final Selector selector = model.getServices().get(Selector.class);
     private final Hud hud = model.getServices().get(Hud.class);
+    private final PathQueue paths = model.getServices().get(PathQueue.class);
 
     /**
      * Create the state.
@@ -66,6 +68,7 @@ class StateDieBase extends State
             hud.clearMenus();
         }
         collidable.setEnabled(false);
+        paths.cancel(pathfindable);
         pathfindable.stopMoves();
         extractor.stopExtraction();
         producer.stopProduction();
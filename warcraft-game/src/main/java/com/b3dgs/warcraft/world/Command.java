@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+/**
+ * List of player orders handled by {@link CommandLog}.
+ */
+public enum Command
+{
+    /** Move from action, stopping attack and extraction. */
+    MOVE,
+    /** Move from right click, stopping attack. */
+    MOVE_RIGHT,
+    /** Attack entities on tile. */
+    ATTACK,
+    /** Repair allied entities on tile. */
+    REPAIR,
+    /** Extract tree or goldmine on tile. */
+    EXTRACT,
+    /** Carry resources to closest warehouse. */
+    CARRY,
+    /** Stop all. */
+    STOP,
+    /** Produce media. */
+    PRODUCE,
+    /** Build media on tile. */
+    BUILD;
+}
@@ -0,0 +1,670 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.FeatureProvider;
+import com.b3dgs.lionengine.game.SizeConfig;
+import com.b3dgs.lionengine.game.Tiled;
+import com.b3dgs.lionengine.game.feature.Factory;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.attackable.Attacker;
+import com.b3dgs.lionengine.game.feature.producible.Producer;
+import com.b3dgs.lionengine.game.feature.producible.Producible;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.extractable.Extractor;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.lionengine.geom.Rectangle;
+import com.b3dgs.warcraft.Player;
+import com.b3dgs.warcraft.Rng;
+import com.b3dgs.warcraft.Util;
+import com.b3dgs.warcraft.object.CostConfig;
+import com.b3dgs.warcraft.object.EntityModel;
+import com.b3dgs.warcraft.object.EntityUpdater;
+import com.b3dgs.warcraft.object.Prototypes;
+import com.b3dgs.warcraft.object.feature.EntityStats;
+import com.b3dgs.warcraft.object.feature.Reparable;
+import com.b3dgs.warcraft.object.feature.RightClickExtract;
+import com.b3dgs.warcraft.object.feature.RightClickMove;
+
+/**
+ * Player orders, applied through a single entry point so they can be recorded and replayed.
+ * <p>
+ * Each order is stamped with its update frame and refers entities by their spawn sequence, which is the same from one
+ * run to another given the same seed. Log starts with a magic number, its format version and the world seed, then
+ * each order: frame, command, entities, tile and media if any. Log ends with the last updated frame and an end marker,
+ * so a replay lasts as long as the recorded session.
+ * </p>
+ * <p>
+ * Issued and replayed orders share the same path: they are queued and applied at the start of their frame update, an
+ * issued order being stamped with the next frame so it is applied when replayed exactly as when played.
+ * </p>
+ */
+public class CommandLog implements Updatable
+{
+    /** Log magic number. */
+    private static final int MAGIC = 0x5752_434C;
+    /** Log format version. */
+    private static final int VERSION = 2;
+    /** Session end marker, in place of a command. */
+    private static final int END = -1;
+    /** Unsupported log error. */
+    private static final String ERROR_LOG = "Unsupported command log: ";
+    /** Invalid command error. */
+    private static final String ERROR_COMMAND = "Invalid command: ";
+    /** Recording error. */
+    private static final String ERROR_RECORDING = "Error on command recording !";
+
+    /**
+     * Read the log header and check it.
+     * 
+     * @param input The log input.
+     * @return The world seed.
+     * @throws IOException If invalid log.
+     */
+    private static long readHeader(DataInputStream input) throws IOException
+    {
+        final int magic = input.readInt();
+        final int version = input.readInt();
+        if (magic != MAGIC || version != VERSION)
+        {
+            throw new IOException(ERROR_LOG + version);
+        }
+        return input.readLong();
+    }
+
+    /**
+     * Read the world seed of a recorded log.
+     * 
+     * @param log The recorded log.
+     * @return The world seed.
+     * @throws IOException If invalid log.
+     */
+    public static long readSeed(Media log) throws IOException
+    {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(log.getInputStream())))
+        {
+            return readHeader(input);
+        }
+    }
+
+    private final Map<Integer, Integer> sequences = new HashMap<>();
+    private final Map<Integer, Featurable> entities = new HashMap<>();
+    private final Deque<Order> orders = new ArrayDeque<>();
+    private final Services services;
+    private final Handler handler;
+    private final MapTile map;
+    private final MapTilePath mapPath;
+    private final Player player;
+    private final Factory factory;
+    private final Forest forest;
+    private final PathQueue paths;
+    private final Rng rng;
+
+    private DataOutputStream output;
+    private int next;
+    private int frame = -1;
+    private int end = -1;
+
+    /**
+     * Create log.
+     * 
+     * @param services The services reference.
+     */
+    public CommandLog(Services services)
+    {
+        super();
+
+        this.services = services;
+        handler = services.get(Handler.class);
+        map = services.get(MapTile.class);
+        mapPath = services.get(MapTilePath.class);
+        player = services.get(Player.class);
+        factory = services.get(Factory.class);
+        forest = services.get(Forest.class);
+        paths = services.get(PathQueue.class);
+        rng = services.get(Rng.class);
+
+        handler.addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                if (featurable.hasFeature(EntityStats.class))
+                {
+                    final Integer sequence = Integer.valueOf(next++);
+                    sequences.put(featurable.getFeature(Identifiable.class).getId(), sequence);
+                    entities.put(sequence, featurable);
+                }
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                final Integer sequence = sequences.remove(featurable.getFeature(Identifiable.class).getId());
+                if (sequence != null)
+                {
+                    entities.remove(sequence);
+                }
+            }
+        });
+    }
+
+    /**
+     * Start recording orders.
+     * 
+     * @param log The log output.
+     */
+    public void record(Media log)
+    {
+        try
+        {
+            output = new DataOutputStream(new BufferedOutputStream(log.getOutputStream()));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(rng.getSeed());
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, ERROR_RECORDING);
+            output = null;
+        }
+    }
+
+    /**
+     * Stop recording orders, writing session end, flushing and closing log output.
+     */
+    public void close()
+    {
+        if (output != null)
+        {
+            try
+            {
+                output.writeInt(frame);
+                output.writeByte(END);
+                output.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, ERROR_RECORDING);
+            }
+            output = null;
+        }
+    }
+
+    /**
+     * Load recorded orders, applied on their frame, until session end. Replay ends on last order if log has no session
+     * end, such as after a crash.
+     * 
+     * @param log The recorded log.
+     * @throws IOException If invalid log.
+     */
+    public void replay(Media log) throws IOException
+    {
+        orders.clear();
+        end = -1;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(log.getInputStream())))
+        {
+            readHeader(input);
+            while (true)
+            {
+                final int at;
+                try
+                {
+                    at = input.readInt();
+                }
+                catch (@SuppressWarnings("unused") final EOFException end)
+                {
+                    break;
+                }
+                final int index = input.readByte();
+                if (index == END)
+                {
+                    end = at;
+                    break;
+                }
+                final Command[] commands = Command.values();
+                if (index < 0 || index >= commands.length)
+                {
+                    throw new IOException(ERROR_COMMAND + index);
+                }
+                final Command command = commands[index];
+                final int[] ids = new int[input.readShort()];
+                for (int i = 0; i < ids.length; i++)
+                {
+                    ids[i] = input.readInt();
+                }
+                final int tx = input.readShort();
+                final int ty = input.readShort();
+                final String media = input.readBoolean() ? input.readUTF() : null;
+                orders.add(new Order(at, command, ids, tx, ty, media));
+            }
+        }
+    }
+
+    /**
+     * Check if queued orders remain or session end is not reached.
+     * 
+     * @return <code>true</code> if replaying, <code>false</code> else.
+     */
+    public boolean isReplaying()
+    {
+        return !orders.isEmpty() || frame < end;
+    }
+
+    /**
+     * Issue an order without target.
+     * 
+     * @param command The order command.
+     * @param selection The ordered entities.
+     */
+    public void issue(Command command, List<? extends FeatureProvider> selection)
+    {
+        issue(command, selection, 0, 0, null);
+    }
+
+    /**
+     * Issue an order to a single entity.
+     * 
+     * @param command The order command.
+     * @param entity The ordered entity.
+     * @param tx The horizontal target tile.
+     * @param ty The vertical target tile.
+     */
+    public void issue(Command command, FeatureProvider entity, int tx, int ty)
+    {
+        issue(command, Collections.singletonList(entity), tx, ty, null);
+    }
+
+    /**
+     * Issue an order, applied at the start of next frame update.
+     * 
+     * @param command The order command.
+     * @param selection The ordered entities.
+     * @param tx The horizontal target tile.
+     * @param ty The vertical target tile.
+     * @param media The produced media, <code>null</code> if none.
+     */
+    public void issue(Command command, List<? extends FeatureProvider> selection, int tx, int ty, Media media)
+    {
+        final int n = selection.size();
+        final int[] ids = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            final Integer sequence = sequences.get(selection.get(i).getFeature(Identifiable.class).getId());
+            ids[i] = sequence != null ? sequence.intValue() : -1;
+        }
+        final Order order = new Order(frame + 1, command, ids, tx, ty, media != null ? media.getPath() : null);
+        write(order);
+        orders.add(order);
+    }
+
+    /**
+     * Queue production again without cost, as restored from a saved game.
+     * 
+     * @param entity The producer.
+     * @param media The produced media.
+     * @param tx The horizontal building tile (ignored if producer does not move).
+     * @param ty The vertical building tile (ignored if producer does not move).
+     */
+    public void requeue(Featurable entity, Media media, int tx, int ty)
+    {
+        if (entity.getFeature(EntityStats.class).isMover())
+        {
+            queueBuilding(entity, media, tx, ty);
+        }
+        else
+        {
+            final Featurable produced = factory.create(media);
+            produced.getFeature(EntityModel.class).setVisible(false);
+            queueUnit(entity, produced);
+        }
+    }
+
+    /**
+     * Write order to log if recording.
+     * 
+     * @param order The order to write.
+     */
+    private void write(Order order)
+    {
+        if (output != null)
+        {
+            try
+            {
+                output.writeInt(order.frame);
+                output.writeByte(order.command.ordinal());
+                output.writeShort(order.entities.length);
+                for (final int id : order.entities)
+                {
+                    output.writeInt(id);
+                }
+                output.writeShort(order.tx);
+                output.writeShort(order.ty);
+                output.writeBoolean(order.media != null);
+                if (order.media != null)
+                {
+                    output.writeUTF(order.media);
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, ERROR_RECORDING);
+                output = null;
+            }
+        }
+    }
+
+    /**
+     * Apply order on its existing entities.
+     * 
+     * @param order The order to apply.
+     */
+    private void apply(Order order)
+    {
+        final List<Featurable> selection = new ArrayList<>(order.entities.length);
+        for (final int id : order.entities)
+        {
+            final Featurable featurable = entities.get(Integer.valueOf(id));
+            if (featurable != null)
+            {
+                featurable.getFeature(EntityUpdater.class).wake();
+                selection.add(featurable);
+            }
+        }
+
+        switch (order.command)
+        {
+            case MOVE:
+                selection.forEach(entity -> move(entity, order.tx, order.ty));
+                break;
+            case MOVE_RIGHT:
+                selection.forEach(entity -> entity.getFeature(RightClickMove.class).move(order.tx, order.ty));
+                break;
+            case ATTACK:
+                selection.forEach(entity -> attack(entity, order.tx, order.ty));
+                break;
+            case REPAIR:
+                selection.forEach(entity -> repair(entity, order.tx, order.ty));
+                break;
+            case EXTRACT:
+                selection.forEach(entity -> entity.getFeature(RightClickExtract.class).extract(order.tx, order.ty));
+                break;
+            case CARRY:
+                selection.forEach(this::carry);
+                break;
+            case STOP:
+                selection.forEach(this::stop);
+                break;
+            case PRODUCE:
+                produce(selection, Medias.create(order.media));
+                break;
+            case BUILD:
+                selection.forEach(entity -> build(entity, Medias.create(order.media), order.tx, order.ty));
+                break;
+            default:
+                throw new IllegalArgumentException(order.command.name());
+        }
+    }
+
+    /**
+     * Move entity, stopping its attack and extraction.
+     * 
+     * @param entity The ordered entity.
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     */
+    private void move(Featurable entity, int tx, int ty)
+    {
+        entity.getFeature(Attacker.class).stopAttack();
+        entity.getFeature(Extractor.class).stopExtraction();
+        forest.release(entity.getFeature(Extractor.class));
+        paths.requestMove(entity.getFeature(Pathfindable.class), tx, ty);
+    }
+
+    /**
+     * Attack entities on tile.
+     * 
+     * @param entity The ordered entity.
+     * @param tx The horizontal target tile.
+     * @param ty The vertical target tile.
+     */
+    private void attack(Featurable entity, int tx, int ty)
+    {
+        for (final Integer id : mapPath.getObjectsId(tx, ty))
+        {
+            final Transformable transformable = handler.get(id).getFeature(Transformable.class);
+            if (entity.getFeature(Transformable.class) != transformable)
+            {
+                entity.getFeature(Attacker.class).attack(transformable);
+            }
+        }
+    }
+
+    /**
+     * Repair damaged allied entities on tile.
+     * 
+     * @param entity The ordered entity.
+     * @param tx The horizontal target tile.
+     * @param ty The vertical target tile.
+     */
+    private void repair(Featurable entity, int tx, int ty)
+    {
+        for (final Integer id : mapPath.getObjectsId(tx, ty))
+        {
+            final Featurable featurable = handler.get(id);
+            if (featurable.hasFeature(Reparable.class)
+                && entity.getFeature(EntityStats.class)
+                         .getRace()
+                         .equals(featurable.getFeature(EntityStats.class).getRace())
+                && featurable.getFeature(EntityStats.class).getHealthPercent() < 100)
+            {
+                entity.getFeature(Attacker.class).attack(featurable.getFeature(Transformable.class));
+            }
+        }
+    }
+
+    /**
+     * Carry resources to closest warehouse.
+     * 
+     * @param entity The ordered entity.
+     */
+    private void carry(Featurable entity)
+    {
+        final Pathfindable pathfindable = entity.getFeature(Pathfindable.class);
+        final Tiled warehouse = Util.getWarehouse(services,
+                                                  entity.getFeature(EntityStats.class).getRace(),
+                                                  pathfindable);
+        if (warehouse != null)
+        {
+            paths.request(pathfindable, warehouse);
+        }
+    }
+
+    /**
+     * Stop all.
+     * 
+     * @param entity The ordered entity.
+     */
+    private void stop(Featurable entity)
+    {
+        paths.cancel(entity.getFeature(Pathfindable.class));
+        entity.getFeature(Pathfindable.class).stopMoves();
+        entity.getFeature(Attacker.class).stopAttack();
+        entity.getFeature(Extractor.class).stopExtraction();
+        forest.release(entity.getFeature(Extractor.class));
+    }
+
+    /**
+     * Produce media if resources are available.
+     * 
+     * @param selection The producers.
+     * @param media The produced media.
+     */
+    private void produce(List<Featurable> selection, Media media)
+    {
+        final CostConfig cost = Prototypes.get(media).getCost();
+        if (player.isAvailableFood()
+            && player.isAvailableWood(cost.getWood())
+            && player.isAvailableGold(cost.getGold()))
+        {
+            player.decreaseResource(cost.getWood(), cost.getGold());
+
+            final Featurable produced = factory.create(media);
+            produced.getFeature(EntityModel.class).setVisible(false);
+
+            for (final Featurable entity : selection)
+            {
+                queueUnit(entity, produced);
+            }
+        }
+    }
+
+    /**
+     * Queue unit production at producer center.
+     * 
+     * @param entity The producer.
+     * @param produced The produced unit.
+     */
+    private void queueUnit(Featurable entity, Featurable produced)
+    {
+        final Producer producer = entity.getFeature(Producer.class);
+        final Transformable transformable = producer.getFeature(Transformable.class);
+        produced.getFeature(Producible.class)
+                .setLocation(transformable.getX() + transformable.getWidth() / 2,
+                             transformable.getY() + transformable.getHeight() / 2);
+        producer.addToProductionQueue(produced);
+    }
+
+    /**
+     * Build media on tile.
+     * 
+     * @param entity The builder.
+     * @param media The built media.
+     * @param tx The horizontal building tile.
+     * @param ty The vertical building tile.
+     */
+    private void build(Featurable entity, Media media, int tx, int ty)
+    {
+        final CostConfig cost = Prototypes.get(media).getCost();
+        player.decreaseResource(cost.getWood(), cost.getGold());
+        queueBuilding(entity, media, tx, ty);
+    }
+
+    /**
+     * Queue building production, once builder reached the building area.
+     * 
+     * @param entity The builder.
+     * @param media The built media.
+     * @param tx The horizontal building tile.
+     * @param ty The vertical building tile.
+     */
+    private void queueBuilding(Featurable entity, Media media, int tx, int ty)
+    {
+        final SizeConfig size = Prototypes.get(media).getSize();
+        final Rectangle area = new Rectangle(tx * map.getTileWidth(),
+                                             ty * map.getTileHeight(),
+                                             size.getWidth(),
+                                             size.getHeight());
+
+        final Featurable building = factory.create(media);
+        building.getFeature(Producible.class).setLocation(area.getX(), area.getY());
+
+        final Producer producer = entity.getFeature(Producer.class);
+        final Pathfindable pathfindable = producer.getFeature(Pathfindable.class);
+        final Transformable transformable = producer.getFeature(Transformable.class);
+        producer.setChecker(featurable -> UtilMath.getDistance(featurable.getFeature(Producible.class),
+                                                               transformable) < map.getTileWidth()
+                                          && paths.isReached(pathfindable));
+
+        paths.request(pathfindable, () -> pathfindable.setDestination(area));
+        producer.addToProductionQueue(building);
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        frame++;
+        while (!orders.isEmpty() && orders.peek().frame <= frame)
+        {
+            apply(orders.poll());
+        }
+    }
+
+    /**
+     * Recorded order.
+     */
+    private static final class Order
+    {
+        /** Update frame. */
+        private final int frame;
+        /** Order command. */
+        private final Command command;
+        /** Ordered entities sequence. */
+        private final int[] entities;
+        /** Horizontal target tile. */
+        private final int tx;
+        /** Vertical target tile. */
+        private final int ty;
+        /** Produced media path, <code>null</code> if none. */
+        private final String media;
+
+        /**
+         * Create order.
+         * 
+         * @param frame The update frame.
+         * @param command The order command.
+         * @param entities The ordered entities sequence.
+         * @param tx The horizontal target tile.
+         * @param ty The vertical target tile.
+         * @param media The produced media path, <code>null</code> if none.
+         */
+        Order(int frame, Command command, int[] entities, int tx, int ty, String media)
+        {
+            this.frame = frame;
+            this.command = command;
+            this.entities = entities;
+            this.tx = tx;
+            this.ty = ty;
+            this.media = media;
+        }
+    }
+}
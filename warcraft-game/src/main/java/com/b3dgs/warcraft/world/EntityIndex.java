@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableListener;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.warcraft.Race;
+import com.b3dgs.warcraft.object.feature.EntityStats;
+
+/**
+ * Spatial hash of entities by race, kept current with handler and transformable events.
+ * <p>
+ * Entities are bucketed in square cells of {@value #CELL_SIZE} tiles, so a radius query only visits the cells
+ * overlapping the searched area instead of each tile of it.
+ * </p>
+ */
+public class EntityIndex
+{
+    /** Cell size in tile. */
+    private static final int CELL_SIZE = 4;
+    /** Vertical cell key shift. */
+    private static final int KEY_SHIFT = 16;
+
+    /**
+     * Get cell key.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell key.
+     */
+    private static Integer key(int cx, int cy)
+    {
+        return Integer.valueOf(cy << KEY_SHIFT | cx);
+    }
+
+    /**
+     * Get the tile distance from location to entity area.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param entity The entity reference.
+     * @return The distance in tile (greatest axis distance).
+     */
+    public static int getDistance(int tx, int ty, Pathfindable entity)
+    {
+        final int x = entity.getInTileX();
+        final int y = entity.getInTileY();
+        final int dx = Math.max(0, Math.max(x - tx, tx - (x + entity.getInTileWidth() - 1)));
+        final int dy = Math.max(0, Math.max(y - ty, ty - (y + entity.getInTileHeight() - 1)));
+        return Math.max(dx, dy);
+    }
+
+    private final Map<Race, Map<Integer, List<Pathfindable>>> cells = new EnumMap<>(Race.class);
+    private final Map<Pathfindable, Integer> keys = new HashMap<>();
+    private final Map<Transformable, Pathfindable> entities = new HashMap<>();
+    private final TransformableListener listener = this::notifyTransformed;
+    private final MapTile map;
+
+    /**
+     * Create index.
+     * 
+     * @param services The services reference.
+     */
+    public EntityIndex(Services services)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        for (final Race race : Race.values())
+        {
+            cells.put(race, new HashMap<>());
+        }
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                if (featurable.hasFeature(EntityStats.class))
+                {
+                    add(featurable);
+                }
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(EntityStats.class))
+                {
+                    remove(featurable);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the closest living enemy of race around location.
+     * 
+     * @param race The searching race.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param range The maximum distance in tile (included).
+     * @return The closest enemy found, <code>null</code> if none.
+     */
+    public Transformable getClosestEnemy(Race race, int tx, int ty, int range)
+    {
+        final int minX = Math.floorDiv(tx - range, CELL_SIZE) - 1;
+        final int maxX = Math.floorDiv(tx + range, CELL_SIZE) + 1;
+        final int minY = Math.floorDiv(ty - range, CELL_SIZE) - 1;
+        final int maxY = Math.floorDiv(ty + range, CELL_SIZE) + 1;
+
+        Pathfindable closest = null;
+        int closestDistance = range + 1;
+        for (final Map.Entry<Race, Map<Integer, List<Pathfindable>>> entry : cells.entrySet())
+        {
+            final Race other = entry.getKey();
+            if (Race.NEUTRAL.equals(other) || race.equals(other))
+            {
+                continue;
+            }
+            final Map<Integer, List<Pathfindable>> raceCells = entry.getValue();
+            for (int cy = minY; cy <= maxY; cy++)
+            {
+                for (int cx = minX; cx <= maxX; cx++)
+                {
+                    final List<Pathfindable> cell = raceCells.get(key(cx, cy));
+                    if (cell != null)
+                    {
+                        final int n = cell.size();
+                        for (int i = 0; i < n; i++)
+                        {
+                            final Pathfindable entity = cell.get(i);
+                            final int distance = getDistance(tx, ty, entity);
+                            if (distance < closestDistance
+                                && entity.getFeature(EntityStats.class).getHealthPercent() > 0)
+                            {
+                                closest = entity;
+                                closestDistance = distance;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (closest != null)
+        {
+            return closest.getFeature(Transformable.class);
+        }
+        return null;
+    }
+
+    /**
+     * Add entities of all races whose cell overlaps the tile area.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param tw The width in tile.
+     * @param th The height in tile.
+     * @param found The found entities output.
+     */
+    public void getInArea(int tx, int ty, int tw, int th, Collection<Pathfindable> found)
+    {
+        final int minX = Math.floorDiv(tx, CELL_SIZE);
+        final int maxX = Math.floorDiv(tx + tw - 1, CELL_SIZE);
+        final int minY = Math.floorDiv(ty, CELL_SIZE);
+        final int maxY = Math.floorDiv(ty + th - 1, CELL_SIZE);
+
+        for (final Map<Integer, List<Pathfindable>> raceCells : cells.values())
+        {
+            for (int cy = minY; cy <= maxY; cy++)
+            {
+                for (int cx = minX; cx <= maxX; cx++)
+                {
+                    final List<Pathfindable> cell = raceCells.get(key(cx, cy));
+                    if (cell != null)
+                    {
+                        found.addAll(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Add entity to index.
+     * 
+     * @param featurable The entity to add.
+     */
+    private void add(Featurable featurable)
+    {
+        final Pathfindable pathfindable = featurable.getFeature(Pathfindable.class);
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        entities.put(transformable, pathfindable);
+        transformable.addListener(listener);
+        move(pathfindable, transformable);
+    }
+
+    /**
+     * Remove entity from index.
+     * 
+     * @param featurable The entity to remove.
+     */
+    private void remove(Featurable featurable)
+    {
+        final Pathfindable pathfindable = featurable.getFeature(Pathfindable.class);
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        transformable.removeListener(listener);
+        entities.remove(transformable);
+
+        final Integer old = keys.remove(pathfindable);
+        if (old != null)
+        {
+            getCells(pathfindable).get(old).remove(pathfindable);
+        }
+    }
+
+    /**
+     * Update entity cell on transform.
+     * 
+     * @param transformable The transformed entity.
+     */
+    private void notifyTransformed(Transformable transformable)
+    {
+        final Pathfindable pathfindable = entities.get(transformable);
+        if (pathfindable != null)
+        {
+            move(pathfindable, transformable);
+        }
+    }
+
+    /**
+     * Move entity to its current cell if changed.
+     * 
+     * @param pathfindable The entity pathfindable.
+     * @param transformable The entity transformable.
+     */
+    private void move(Pathfindable pathfindable, Transformable transformable)
+    {
+        final Integer key = key(Math.floorDiv(map.getInTileX(transformable), CELL_SIZE),
+                                Math.floorDiv(map.getInTileY(transformable), CELL_SIZE));
+        final Integer old = keys.put(pathfindable, key);
+        if (!key.equals(old))
+        {
+            final Map<Integer, List<Pathfindable>> raceCells = getCells(pathfindable);
+            if (old != null)
+            {
+                raceCells.get(old).remove(pathfindable);
+            }
+            raceCells.computeIfAbsent(key, k -> new ArrayList<>()).add(pathfindable);
+        }
+    }
+
+    /**
+     * Get the cells of entity race.
+     * 
+     * @param pathfindable The entity reference.
+     * @return The race cells.
+     */
+    private Map<Integer, List<Pathfindable>> getCells(Pathfindable pathfindable)
+    {
+        return cells.get(pathfindable.getFeature(EntityStats.class).getRace());
+    }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.Tiled;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableListener;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableListenerVoid;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.Fovable;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.warcraft.Player;
+import com.b3dgs.warcraft.Race;
+import com.b3dgs.warcraft.object.feature.EntityStats;
+
+/**
+ * Field of view of each race.
+ * <p>
+ * Visited and visible tiles are stored as one bit per tile, each row starting on a new <code>long</code>, so area
+ * queries test {@value #WORD_SIZE} tiles at once. Visible tiles also keep their observers count on one byte: as
+ * observers stand on distinct tiles, a tile is seen by at most <code>(2 fov + 1) * (2 fov + 1)</code> of them, which
+ * fits up to a {@value #FOV_MAX} tiles radius. This is one byte and two bits per tile and race.
+ * </p>
+ * <p>
+ * Observer fields use a circle mask computed once per <code>fov</code> value. Moves are collected and applied once per
+ * update, so an observer moving several steps in one update is counted once: only the row ranges entering and leaving
+ * its field are counted, and its new field is added to the visited plane.
+ * </p>
+ * <p>
+ * The {@link FogOfWar} rendering is only updated for player observers, when a hidden tile is revealed, or on each move
+ * if fog is enabled.
+ * </p>
+ */
+public class FieldOfView implements Updatable
+{
+    /** Tiles per word. */
+    private static final int WORD_SIZE = 64;
+    /** Word shift. */
+    private static final int WORD_SHIFT = 6;
+    /** Word mask. */
+    private static final int WORD_MASK = WORD_SIZE - 1;
+    /** Observer horizontal tile. */
+    private static final int TX = 0;
+    /** Observer vertical tile. */
+    private static final int TY = 1;
+    /** Observer width in tile. */
+    private static final int TW = 2;
+    /** Observer height in tile. */
+    private static final int TH = 3;
+    /** Observer radius in tile. */
+    private static final int FOV = 4;
+    /** Observer race ordinal. */
+    private static final int RACE = 5;
+    /** Maximum radius in tile, for observers count to fit in a byte. */
+    private static final int FOV_MAX = 7;
+    /** Unsigned byte mask. */
+    private static final int BYTE_MASK = 0xFF;
+    /** Too large radius error. */
+    private static final String ERROR_FOV = "Field of view too large: ";
+
+    /**
+     * Compute circle mask.
+     * 
+     * @param fov The radius in tile.
+     * @return The half width by vertical distance to center.
+     */
+    private static int[] createMask(int fov)
+    {
+        final int[] mask = new int[fov + 1];
+        for (int d = 0; d <= fov; d++)
+        {
+            mask[d] = (int) Math.floor(Math.sqrt((double) fov * fov - d * d));
+        }
+        return mask;
+    }
+
+    private final Map<Fovable, int[]> observers = new HashMap<>();
+    private final Set<Fovable> moved = new LinkedHashSet<>();
+    private final Map<Integer, int[]> masks = new HashMap<>();
+    private final PathfindableListener listener = new PathfindableListenerVoid()
+    {
+        @Override
+        public void notifyMoving(Pathfindable pathfindable)
+        {
+            moved.add(pathfindable.getFeature(Fovable.class));
+        }
+    };
+    private final MapTile map;
+    private final FogOfWar fogOfWar;
+    private final Player player;
+
+    private byte[][] counts = new byte[0][];
+    private long[][] visible = new long[0][];
+    private long[][] visited = new long[0][];
+    private int width;
+    private int height;
+    private int words;
+    private boolean hide;
+    private boolean fog;
+
+    /**
+     * Create field of view.
+     * 
+     * @param services The services reference.
+     */
+    public FieldOfView(Services services)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        fogOfWar = services.get(FogOfWar.class);
+        player = services.get(Player.class);
+        fogOfWar.addListener((tx, ty) -> reveal(player.getRace().ordinal(), tx, ty));
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                if (featurable.hasFeature(Fovable.class))
+                {
+                    featurable.getFeature(Pathfindable.class).addListener(listener);
+                    add(featurable.getFeature(Fovable.class));
+                }
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(Fovable.class))
+                {
+                    featurable.getFeature(Pathfindable.class).removeListener(listener);
+                    remove(featurable.getFeature(Fovable.class));
+                }
+            }
+        });
+    }
+
+    /**
+     * Reset tiles to current map size.
+     */
+    public void load()
+    {
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        words = (width + WORD_MASK) >> WORD_SHIFT;
+
+        final int races = Race.values().length;
+        counts = new byte[races][width * height];
+        visible = new long[races][words * height];
+        visited = new long[races][words * height];
+        observers.clear();
+        moved.clear();
+    }
+
+    /**
+     * Set enabled modes, as {@link FogOfWar#setEnabled(boolean, boolean)}.
+     * 
+     * @param hide <code>true</code> to hide unvisited tiles, <code>false</code> else.
+     * @param fog <code>true</code> to fog unseen tiles, <code>false</code> else.
+     */
+    public void setEnabled(boolean hide, boolean fog)
+    {
+        this.hide = hide;
+        this.fog = fog;
+    }
+
+    /**
+     * Check if tile is visible by player.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if visible, <code>false</code> else.
+     */
+    public boolean isVisible(int tx, int ty)
+    {
+        return isVisible(player.getRace(), tx, ty, 1, 1);
+    }
+
+    /**
+     * Check if at least one tile of tiled is visible by player.
+     * 
+     * @param tiled The tiled to check.
+     * @return <code>true</code> if visible, <code>false</code> else.
+     */
+    public boolean isVisible(Tiled tiled)
+    {
+        return isVisible(player.getRace(),
+                         tiled.getInTileX(),
+                         tiled.getInTileY(),
+                         tiled.getInTileWidth(),
+                         tiled.getInTileHeight());
+    }
+
+    /**
+     * Check if at least one tile of area is neither hidden nor fogged for race.
+     * 
+     * @param race The race reference.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param tw The width in tile.
+     * @param th The height in tile.
+     * @return <code>true</code> if visible, <code>false</code> else.
+     */
+    public boolean isVisible(Race race, int tx, int ty, int tw, int th)
+    {
+        if (fog)
+        {
+            return isAny(visible[race.ordinal()], tx, ty, tw, th);
+        }
+        if (hide)
+        {
+            return isAny(visited[race.ordinal()], tx, ty, tw, th);
+        }
+        return true;
+    }
+
+    /**
+     * Check if at least one tile of area has been visited by player.
+     * 
+     * @param area The area in map coordinates.
+     * @return <code>true</code> if visited, <code>false</code> else.
+     */
+    public boolean isVisited(Area area)
+    {
+        final int tx = (int) Math.floor(area.getX() / map.getTileWidth());
+        final int ty = (int) Math.floor(area.getY() / map.getTileHeight());
+        final int tw = (int) Math.ceil(area.getWidthReal() / map.getTileWidth());
+        final int th = (int) Math.ceil(area.getHeightReal() / map.getTileHeight());
+
+        return isAny(visited[player.getRace().ordinal()], tx, ty, tw, th);
+    }
+
+    /**
+     * Add observer and reveal its field.
+     * 
+     * @param fovable The observer to add.
+     * @throws LionEngineException If field of view is too large.
+     */
+    private void add(Fovable fovable)
+    {
+        final int[] observer = getObserver(fovable);
+        if (observer[FOV] > FOV_MAX)
+        {
+            throw new LionEngineException(ERROR_FOV + observer[FOV]);
+        }
+        observers.put(fovable, observer);
+        fill(visited[observer[RACE]], observer);
+        count(observer, 1);
+        if (observer[RACE] == player.getRace().ordinal())
+        {
+            fogOfWar.update(fovable);
+        }
+    }
+
+    /**
+     * Remove observer and its field.
+     * 
+     * @param fovable The observer to remove.
+     */
+    private void remove(Fovable fovable)
+    {
+        final int[] observer = observers.remove(fovable);
+        if (observer != null)
+        {
+            count(observer, -1);
+        }
+        moved.remove(fovable);
+    }
+
+    /**
+     * Get observer current state.
+     * 
+     * @param fovable The observer reference.
+     * @return The observer state.
+     */
+    private int[] getObserver(Fovable fovable)
+    {
+        final Pathfindable pathfindable = fovable.getFeature(Pathfindable.class);
+        return new int[]
+        {
+            pathfindable.getInTileX(),
+            pathfindable.getInTileY(),
+            pathfindable.getInTileWidth(),
+            pathfindable.getInTileHeight(),
+            fovable.getInTileFov(),
+            fovable.getFeature(EntityStats.class).getRace().ordinal()
+        };
+    }
+
+    /**
+     * Check if at least one tile of area is set in plane, a word at a time.
+     * 
+     * @param plane The plane to check.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param tw The width in tile.
+     * @param th The height in tile.
+     * @return <code>true</code> if any tile set, <code>false</code> else.
+     */
+    private boolean isAny(long[] plane, int tx, int ty, int tw, int th)
+    {
+        final int minX = Math.max(0, tx);
+        final int maxX = Math.min(width - 1, tx + tw - 1);
+        final int minY = Math.max(0, ty);
+        final int maxY = Math.min(height - 1, ty + th - 1);
+        if (minX > maxX || minY > maxY)
+        {
+            return false;
+        }
+
+        final int first = minX >> WORD_SHIFT;
+        final int last = maxX >> WORD_SHIFT;
+        final long head = -1L << (minX & WORD_MASK);
+        final long tail = -1L >>> (WORD_MASK - (maxX & WORD_MASK));
+
+        long any = 0L;
+        for (int y = minY; y <= maxY; y++)
+        {
+            final int row = y * words;
+            any |= plane[row + first] & head & (first == last ? tail : -1L);
+            for (int w = first + 1; w < last; w++)
+            {
+                any |= plane[row + w];
+            }
+            any |= last > first ? plane[row + last] & tail : 0L;
+        }
+        return any != 0L;
+    }
+
+    /**
+     * Get observer horizontal range on row.
+     * 
+     * @param observer The observer state (may be <code>null</code>).
+     * @param ty The row.
+     * @param range The range output, as first and last tile.
+     * @return <code>true</code> if row is seen, <code>false</code> else.
+     */
+    private boolean getRange(int[] observer, int ty, int[] range)
+    {
+        if (observer == null)
+        {
+            return false;
+        }
+        final int fov = observer[FOV];
+        final int distance;
+        if (ty < observer[TY])
+        {
+            distance = observer[TY] - ty;
+        }
+        else
+        {
+            distance = Math.max(0, ty - (observer[TY] + observer[TH] - 1));
+        }
+        if (distance > fov)
+        {
+            return false;
+        }
+        final int half = masks.computeIfAbsent(Integer.valueOf(fov), r -> createMask(r.intValue()))[distance];
+        range[0] = observer[TX] - half;
+        range[1] = observer[TX] + observer[TW] - 1 + half;
+        return true;
+    }
+
+    /**
+     * Set tiles of observer field in plane.
+     * 
+     * @param plane The plane to fill.
+     * @param observer The observer state.
+     * @return <code>true</code> if a tile was not set, <code>false</code> else.
+     */
+    private boolean fill(long[] plane, int[] observer)
+    {
+        final int[] range = new int[2];
+        final int top = Math.max(0, observer[TY] - observer[FOV]);
+        final int bottom = Math.min(height - 1, observer[TY] + observer[TH] - 1 + observer[FOV]);
+
+        boolean added = false;
+        for (int ty = top; ty <= bottom; ty++)
+        {
+            if (getRange(observer, ty, range))
+            {
+                added |= fill(plane, ty, range[0], range[1]);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Set tiles of row range in plane, a word at a time.
+     * 
+     * @param plane The plane to fill.
+     * @param ty The row.
+     * @param from The first tile.
+     * @param to The last tile.
+     * @return <code>true</code> if a tile was not set, <code>false</code> else.
+     */
+    private boolean fill(long[] plane, int ty, int from, int to)
+    {
+        final int minX = Math.max(0, from);
+        final int maxX = Math.min(width - 1, to);
+        if (minX > maxX)
+        {
+            return false;
+        }
+
+        final int first = minX >> WORD_SHIFT;
+        final int last = maxX >> WORD_SHIFT;
+        final long head = -1L << (minX & WORD_MASK);
+        final long tail = -1L >>> (WORD_MASK - (maxX & WORD_MASK));
+        final int row = ty * words;
+
+        long added = 0L;
+        for (int w = first; w <= last; w++)
+        {
+            final long mask = (w == first ? head : -1L) & (w == last ? tail : -1L);
+            added |= ~plane[row + w] & mask;
+            plane[row + w] |= mask;
+        }
+        return added != 0L;
+    }
+
+    /**
+     * Count observer field in its race visible tiles.
+     * 
+     * @param observer The observer state.
+     * @param delta The count delta, <code>1</code> on add, <code>-1</code> on remove.
+     */
+    private void count(int[] observer, int delta)
+    {
+        final int[] range = new int[2];
+        final int top = Math.max(0, observer[TY] - observer[FOV]);
+        final int bottom = Math.min(height - 1, observer[TY] + observer[TH] - 1 + observer[FOV]);
+        for (int ty = top; ty <= bottom; ty++)
+        {
+            if (getRange(observer, ty, range))
+            {
+                count(observer[RACE], ty, range[0], range[1], delta);
+            }
+        }
+    }
+
+    /**
+     * Count only the tiles leaving and entering the observer field.
+     * 
+     * @param old The observer previous state.
+     * @param current The observer current state.
+     */
+    private void move(int[] old, int[] current)
+    {
+        final int[] before = new int[2];
+        final int[] after = new int[2];
+        final int top = Math.max(0, Math.min(old[TY] - old[FOV], current[TY] - current[FOV]));
+        final int bottom = Math.min(height - 1,
+                                    Math.max(old[TY] + old[TH] - 1 + old[FOV],
+                                             current[TY] + current[TH] - 1 + current[FOV]));
+        for (int ty = top; ty <= bottom; ty++)
+        {
+            final boolean was = getRange(old, ty, before);
+            final boolean is = getRange(current, ty, after);
+            if (was && is)
+            {
+                count(old[RACE], ty, before[0], Math.min(before[1], after[0] - 1), -1);
+                count(old[RACE], ty, Math.max(before[0], after[1] + 1), before[1], -1);
+                count(current[RACE], ty, after[0], Math.min(after[1], before[0] - 1), 1);
+                count(current[RACE], ty, Math.max(after[0], before[1] + 1), after[1], 1);
+            }
+            else if (was)
+            {
+                count(old[RACE], ty, before[0], before[1], -1);
+            }
+            else if (is)
+            {
+                count(current[RACE], ty, after[0], after[1], 1);
+            }
+        }
+    }
+
+    /**
+     * Count row range tiles, a tile being visible while counted at least once.
+     * 
+     * @param race The race ordinal.
+     * @param ty The row.
+     * @param from The first tile.
+     * @param to The last tile.
+     * @param delta The count delta.
+     */
+    private void count(int race, int ty, int from, int to, int delta)
+    {
+        final int minX = Math.max(0, from);
+        final int maxX = Math.min(width - 1, to);
+        final byte[] tiles = counts[race];
+        final long[] plane = visible[race];
+        final int row = ty * width;
+        final int bits = ty * words;
+        for (int tx = minX; tx <= maxX; tx++)
+        {
+            final int count = (tiles[row + tx] & BYTE_MASK) + delta;
+            tiles[row + tx] = (byte) count;
+            final long bit = 1L << (tx & WORD_MASK);
+            if (count == 0)
+            {
+                plane[bits + (tx >> WORD_SHIFT)] &= ~bit;
+            }
+            else
+            {
+                plane[bits + (tx >> WORD_SHIFT)] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Mark tile as visited.
+     * 
+     * @param race The race ordinal.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     */
+    private void reveal(int race, int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            visited[race][ty * words + (tx >> WORD_SHIFT)] |= 1L << (tx & WORD_MASK);
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        final int race = player.getRace().ordinal();
+        for (final Fovable fovable : moved)
+        {
+            final int[] old = observers.get(fovable);
+            if (old != null)
+            {
+                final int[] current = getObserver(fovable);
+                if (old[TX] != current[TX] || old[TY] != current[TY])
+                {
+                    observers.put(fovable, current);
+                    move(old, current);
+                    if ((fill(visited[current[RACE]], current) || fog) && current[RACE] == race)
+                    {
+                        fogOfWar.update(fovable);
+                    }
+                }
+            }
+        }
+        moved.clear();
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.CoordTile;
+
+/**
+ * Ground distance fields to move goals, shared by all units ordered to the same tile.
+ * <p>
+ * A field stores the walking distance of each tile to its goal, computed once with a breadth first search over the
+ * {@link PathClusters} walkable tiles. Units step along it by descending distances, one tile at a time.
+ * </p>
+ * <p>
+ * A changed area only drops the fields reaching it or one of its neighbours, as others cannot be joined through it.
+ * </p>
+ */
+public class FlowFields implements PathClustersListener
+{
+    /** Maximum cached fields. */
+    private static final int CACHE_SIZE = 8;
+
+    /**
+     * Check if tile is inside map.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private static boolean isInside(int tx, int ty, int width, int height)
+    {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+
+    /**
+     * Check if field reaches area or one of its neighbours.
+     * 
+     * @param field The goal field.
+     * @param x0 The first horizontal tile, inside map.
+     * @param y0 The first vertical tile, inside map.
+     * @param x1 The last horizontal tile, inside map.
+     * @param y1 The last vertical tile, inside map.
+     * @param width The map width in tile.
+     * @return <code>true</code> if a tile is reached, <code>false</code> else.
+     */
+    private static boolean isReaching(int[] field, int x0, int y0, int x1, int y1, int width)
+    {
+        for (int ty = y0; ty <= y1; ty++)
+        {
+            for (int tx = x0; tx <= x1; tx++)
+            {
+                if (field[ty * width + tx] >= 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private final Map<Integer, int[]> fields = new LinkedHashMap<Integer, int[]>(CACHE_SIZE, 0.75F, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest)
+        {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final MapTile map;
+    private final PathClusters clusters;
+
+    /**
+     * Create fields.
+     * 
+     * @param services The services reference.
+     */
+    public FlowFields(Services services)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        clusters = services.get(PathClusters.class);
+        clusters.addListener(this);
+    }
+
+    /**
+     * Get the next tile toward goal, following goal field.
+     * 
+     * @param tx The horizontal current tile.
+     * @param ty The vertical current tile.
+     * @param gx The horizontal goal tile.
+     * @param gy The vertical goal tile.
+     * @return The next tile, <code>null</code> if goal is adjacent or cannot be reached.
+     */
+    public CoordTile getNext(int tx, int ty, int gx, int gy)
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        if (!isInside(tx, ty, width, height) || !isInside(gx, gy, width, height))
+        {
+            return null;
+        }
+
+        final int[] field = getField(gx, gy);
+        final int current = ty * width + tx;
+        if (field[current] <= 1)
+        {
+            return null;
+        }
+        final int next = getNext(field, current, width, height);
+        if (next < 0)
+        {
+            return null;
+        }
+        return new CoordTile(next % width, next / width);
+    }
+
+    /**
+     * Get the goal field, computed if missing.
+     * 
+     * @param gx The horizontal goal tile.
+     * @param gy The vertical goal tile.
+     * @return The distances to goal by tile, negative if unreachable.
+     */
+    private int[] getField(int gx, int gy)
+    {
+        final int width = map.getInTileWidth();
+        final Integer key = Integer.valueOf(gy * width + gx);
+        int[] field = fields.get(key);
+        if (field == null)
+        {
+            field = compute(gx, gy, width, map.getInTileHeight());
+            fields.put(key, field);
+        }
+        return field;
+    }
+
+    /**
+     * Compute distances to goal. Goal may itself be blocked.
+     * 
+     * @param gx The horizontal goal tile.
+     * @param gy The vertical goal tile.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @return The distances to goal by tile, negative if unreachable.
+     */
+    private int[] compute(int gx, int gy, int width, int height)
+    {
+        final int[] field = new int[width * height];
+        Arrays.fill(field, -1);
+        final int[] queue = new int[width * height];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = gy * width + gx;
+        field[queue[0]] = 0;
+
+        while (head < tail)
+        {
+            final int current = queue[head++];
+            final int cx = current % width;
+            final int cy = current / width;
+            for (int oy = -1; oy < 2; oy++)
+            {
+                for (int ox = -1; ox < 2; ox++)
+                {
+                    final int tx = cx + ox;
+                    final int ty = cy + oy;
+                    if (isInside(tx, ty, width, height) && field[ty * width + tx] < 0 && canStep(cx, cy, ox, oy))
+                    {
+                        field[ty * width + tx] = field[current] + 1;
+                        queue[tail++] = ty * width + tx;
+                    }
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Get the neighbour closer to goal.
+     * 
+     * @param field The goal field.
+     * @param current The current tile index.
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @return The next tile index, negative if none.
+     */
+    private int getNext(int[] field, int current, int width, int height)
+    {
+        final int cx = current % width;
+        final int cy = current / width;
+        int next = -1;
+        for (int oy = -1; oy < 2; oy++)
+        {
+            for (int ox = -1; ox < 2; ox++)
+            {
+                final int tx = cx + ox;
+                final int ty = cy + oy;
+                if (isInside(tx, ty, width, height))
+                {
+                    final int index = ty * width + tx;
+                    if (field[index] >= 0
+                        && field[index] < field[next < 0 ? current : next]
+                        && canStep(cx, cy, ox, oy))
+                    {
+                        next = index;
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Check if step is allowed, diagonals requiring both sides to be free.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param ox The horizontal step.
+     * @param oy The vertical step.
+     * @return <code>true</code> if step allowed, <code>false</code> else.
+     */
+    private boolean canStep(int tx, int ty, int ox, int oy)
+    {
+        return clusters.isWalkable(tx + ox, ty + oy)
+               && (ox == 0 || oy == 0 || clusters.isWalkable(tx + ox, ty) && clusters.isWalkable(tx, ty + oy));
+    }
+
+    /*
+     * PathClustersListener
+     */
+
+    @Override
+    public void notifyChanged(int tx, int ty, int tw, int th)
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        final int x0 = Math.max(0, tx - 1);
+        final int y0 = Math.max(0, ty - 1);
+        final int x1 = Math.min(width - 1, tx + tw);
+        final int y1 = Math.min(height - 1, ty + th);
+
+        final Iterator<int[]> iterator = fields.values().iterator();
+        while (iterator.hasNext())
+        {
+            final int[] field = iterator.next();
+            if (field.length != width * height || isReaching(field, x0, y0, x1, y1, width))
+            {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.Tiled;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.extractable.Extractor;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
+import com.b3dgs.warcraft.constant.Constant;
+
+/**
+ * Index of tree tiles with worker claims.
+ * <p>
+ * Trees are stored as one bit per tile, each chunk of {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} tiles packed in a
+ * single <code>long</code>, so empty areas are skipped a chunk at a time. A tree is only returned when it touches a
+ * ground tile, which is the side a worker can cut it from.
+ * </p>
+ * <p>
+ * Cut trees are kept in cut order since load, as they are the only map changes to restore a saved game.
+ * </p>
+ */
+public class Forest
+{
+    /** Chunk size in tile (chunk area must fit in a long). */
+    private static final int CHUNK_SIZE = 8;
+    /** Chunk shift. */
+    private static final int CHUNK_SHIFT = 3;
+    /** Chunk mask. */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /** Initial cut trees capacity. */
+    private static final int CUTS_CAPACITY = 64;
+
+    private final Map<Integer, Extractor> claims = new HashMap<>();
+    private final Map<Extractor, Integer> claimed = new HashMap<>();
+    private final MapTile map;
+    private final MapTilePath mapPath;
+
+    private long[] chunks = new long[0];
+    private int chunksWidth;
+    private int chunksHeight;
+    private int[] cuts = new int[CUTS_CAPACITY];
+    private int cutsCount;
+
+    /**
+     * Create forest.
+     * 
+     * @param services The services reference.
+     */
+    public Forest(Services services)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        mapPath = services.get(MapTilePath.class);
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(Extractor.class))
+                {
+                    release(featurable.getFeature(Extractor.class));
+                }
+            }
+        });
+    }
+
+    /**
+     * Build index from current map categories.
+     */
+    public void load()
+    {
+        chunksWidth = (map.getInTileWidth() + CHUNK_MASK) >> CHUNK_SHIFT;
+        chunksHeight = (map.getInTileHeight() + CHUNK_MASK) >> CHUNK_SHIFT;
+        chunks = new long[chunksWidth * chunksHeight];
+        claims.clear();
+        claimed.clear();
+        cutsCount = 0;
+
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                refresh(tx, ty);
+            }
+        }
+    }
+
+    /**
+     * Update index after a tree has been cut, including its neighbours changed by transitions.
+     * 
+     * @param tx The horizontal cut tile.
+     * @param ty The vertical cut tile.
+     */
+    public void cut(int tx, int ty)
+    {
+        final Integer key = key(tx, ty);
+        final Extractor claimer = claims.remove(key);
+        if (claimer != null)
+        {
+            claimed.remove(claimer);
+        }
+        if (cutsCount == cuts.length)
+        {
+            cuts = Arrays.copyOf(cuts, cutsCount * 2);
+        }
+        cuts[cutsCount++] = key.intValue();
+
+        for (int oy = -1; oy < 2; oy++)
+        {
+            for (int ox = -1; ox < 2; ox++)
+            {
+                refresh(tx + ox, ty + oy);
+            }
+        }
+    }
+
+    /**
+     * Get the cut trees since load.
+     * 
+     * @return The cut tree keys copy (<code>tx + ty * width</code>), in cut order.
+     */
+    public int[] getCuts()
+    {
+        return Arrays.copyOf(cuts, cutsCount);
+    }
+
+    /**
+     * Get the closest free tree that can be cut, and claim it.
+     * 
+     * @param claimer The extractor claiming the tree (previous claim is released).
+     * @param from The search origin.
+     * @param radius The maximum search distance in tile.
+     * @return The claimed tree, <code>null</code> if none.
+     */
+    public Tile claimClosest(Extractor claimer, Tiled from, int radius)
+    {
+        release(claimer);
+
+        final int fx = from.getInTileX();
+        final int fy = from.getInTileY();
+        final int cx = fx >> CHUNK_SHIFT;
+        final int cy = fy >> CHUNK_SHIFT;
+        final int rings = (radius >> CHUNK_SHIFT) + 1;
+        final int radiusSquare = radius * radius;
+
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int ring = 0; ring <= rings; ring++)
+        {
+            final int near = Math.max(0, (ring - 1) * CHUNK_SIZE + 1);
+            if (near * near > bestDistance)
+            {
+                break;
+            }
+            for (int y = cy - ring; y <= cy + ring; y++)
+            {
+                for (int x = cx - ring; x <= cx + ring; x++)
+                {
+                    if (Math.max(Math.abs(x - cx), Math.abs(y - cy)) == ring
+                        && x >= 0
+                        && y >= 0
+                        && x < chunksWidth
+                        && y < chunksHeight)
+                    {
+                        long bits = chunks[y * chunksWidth + x];
+                        while (bits != 0L)
+                        {
+                            final int bit = Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1L;
+
+                            final int tx = (x << CHUNK_SHIFT) + (bit & CHUNK_MASK);
+                            final int ty = (y << CHUNK_SHIFT) + (bit >> CHUNK_SHIFT);
+                            final int distance = (tx - fx) * (tx - fx) + (ty - fy) * (ty - fy);
+                            if (distance < bestDistance
+                                && distance <= radiusSquare
+                                && !claims.containsKey(key(tx, ty))
+                                && isExposed(tx, ty))
+                            {
+                                best = key(tx, ty).intValue();
+                                bestDistance = distance;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        if (best < 0)
+        {
+            return null;
+        }
+        final Integer key = Integer.valueOf(best);
+        claims.put(key, claimer);
+        claimed.put(claimer, key);
+        return map.getTile(best % map.getInTileWidth(), best / map.getInTileWidth());
+    }
+
+    /**
+     * Claim tree for extractor, even if claimed by another one.
+     * 
+     * @param claimer The extractor claiming the tree (previous claim is released).
+     * @param tree The tree to claim.
+     */
+    public void claim(Extractor claimer, Tiled tree)
+    {
+        release(claimer);
+
+        final Integer key = key(tree.getInTileX(), tree.getInTileY());
+        final Extractor old = claims.put(key, claimer);
+        if (old != null)
+        {
+            claimed.remove(old);
+        }
+        claimed.put(claimer, key);
+    }
+
+    /**
+     * Release extractor claim if has one.
+     * 
+     * @param claimer The extractor claimer.
+     */
+    public void release(Extractor claimer)
+    {
+        final Integer key = claimed.remove(claimer);
+        if (key != null)
+        {
+            claims.remove(key);
+        }
+    }
+
+    /**
+     * Get tile key.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return The tile key.
+     */
+    private Integer key(int tx, int ty)
+    {
+        return Integer.valueOf(tx + ty * map.getInTileWidth());
+    }
+
+    /**
+     * Check if tree touches a ground tile.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if can be reached, <code>false</code> else.
+     */
+    private boolean isExposed(int tx, int ty)
+    {
+        for (int oy = -1; oy < 2; oy++)
+        {
+            for (int ox = -1; ox < 2; ox++)
+            {
+                final Tile tile = map.getTile(tx + ox, ty + oy);
+                if (tile != null && Constant.CATEGORY_GROUND.equals(mapPath.getCategory(tile)))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Refresh tile bit from its current category.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     */
+    private void refresh(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            final int index = (ty >> CHUNK_SHIFT) * chunksWidth + (tx >> CHUNK_SHIFT);
+            final long bit = 1L << (((ty & CHUNK_MASK) << CHUNK_SHIFT) | tx & CHUNK_MASK);
+            if (Constant.CATEGORY_TREE.equals(mapPath.getCategory(tile)))
+            {
+                chunks[index] |= bit;
+            }
+            else
+            {
+                chunks[index] &= ~bit;
+            }
+        }
+    }
+}
@@ -0,0 +1,744 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.CoordTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.object.feature.Burnable;
+
+/**
+ * Abstract path graph over map clusters.
+ * <p>
+ * Map is split in square clusters of {@value #CLUSTER_SIZE} tiles. Each open run along a border between two clusters
+ * gives one portal (a pair of facing tiles), and portals of a same cluster are linked with their walking distance
+ * inside it. A long route is searched on this graph, and answered as the list of entered portals, each hop being
+ * refined by the regular pathfinder when reached. Ground tiles are walkable, except the ones under structures.
+ * </p>
+ * <p>
+ * Changed areas only mark their clusters, rebuilt with their borders and neighbours on next route search, and are
+ * notified to the {@link PathClustersListener}.
+ * </p>
+ */
+public class PathClusters
+{
+    /** Cluster size in tile. */
+    private static final int CLUSTER_SIZE = 8;
+    /** Minimum distance in tile to route through clusters. */
+    private static final int ROUTE_MIN_DISTANCE = CLUSTER_SIZE * 2;
+
+    /**
+     * Get the greatest axis distance.
+     * 
+     * @param ax The first horizontal tile.
+     * @param ay The first vertical tile.
+     * @param bx The second horizontal tile.
+     * @param by The second vertical tile.
+     * @return The distance in tile.
+     */
+    private static int getDistance(int ax, int ay, int bx, int by)
+    {
+        return Math.max(Math.abs(ax - bx), Math.abs(ay - by));
+    }
+
+    /** Border pairs (first tile, facing tile...) by border id. */
+    private final Map<Integer, int[]> borders = new HashMap<>();
+    /** Facing portal tiles by portal tile. */
+    private final Map<Integer, Set<Integer>> inter = new HashMap<>();
+    /** Portal distances inside cluster by cluster. */
+    private final Map<Integer, Map<Integer, Map<Integer, Integer>>> intra = new HashMap<>();
+    private final Set<Integer> dirty = new HashSet<>();
+    private final Set<Integer> structures = new HashSet<>();
+    private final List<PathClustersListener> listeners = new ArrayList<>();
+    private final MapTile map;
+    private final MapTilePath mapPath;
+
+    private boolean[] walkable = new boolean[0];
+    private int width;
+    private int height;
+    private int clustersWidth;
+    private int clustersHeight;
+
+    /**
+     * Create clusters.
+     * 
+     * @param services The services reference.
+     */
+    public PathClusters(Services services)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        mapPath = services.get(MapTilePath.class);
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                if (featurable.hasFeature(Burnable.class))
+                {
+                    structures.add(featurable.getFeature(Identifiable.class).getId());
+                    invalidate(featurable.getFeature(Pathfindable.class));
+                }
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(Burnable.class))
+                {
+                    structures.remove(featurable.getFeature(Identifiable.class).getId());
+                    invalidate(featurable.getFeature(Pathfindable.class));
+                }
+            }
+        });
+    }
+
+    /**
+     * Add a listener.
+     * 
+     * @param listener The listener to add.
+     */
+    public void addListener(PathClustersListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Build all clusters from current map.
+     */
+    public void load()
+    {
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        clustersWidth = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        clustersHeight = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        walkable = new boolean[width * height];
+        borders.clear();
+        inter.clear();
+        intra.clear();
+        dirty.clear();
+
+        for (int c = 0; c < clustersWidth * clustersHeight; c++)
+        {
+            dirty.add(Integer.valueOf(c));
+        }
+        flush();
+        notifyChanged(0, 0, width, height);
+    }
+
+    /**
+     * Mark area as changed.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param tw The width in tile.
+     * @param th The height in tile.
+     */
+    public void invalidate(int tx, int ty, int tw, int th)
+    {
+        final int minX = Math.max(0, tx) / CLUSTER_SIZE;
+        final int minY = Math.max(0, ty) / CLUSTER_SIZE;
+        final int maxX = Math.min(width - 1, tx + tw - 1) / CLUSTER_SIZE;
+        final int maxY = Math.min(height - 1, ty + th - 1) / CLUSTER_SIZE;
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                dirty.add(Integer.valueOf(cy * clustersWidth + cx));
+            }
+        }
+        notifyChanged(tx, ty, tw, th);
+    }
+
+    /**
+     * Check if tile is walkable, after last changes.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if walkable, <code>false</code> else.
+     */
+    public boolean isWalkable(int tx, int ty)
+    {
+        flush();
+        return isOpen(tx, ty);
+    }
+
+    /**
+     * Get the portals route between two tiles. Empty if locations are close enough to be searched directly, or if no
+     * route has been found.
+     * 
+     * @param sx The horizontal start tile.
+     * @param sy The vertical start tile.
+     * @param gx The horizontal goal tile.
+     * @param gy The vertical goal tile.
+     * @return The entered portals, goal excluded.
+     */
+    public List<CoordTile> getRoute(int sx, int sy, int gx, int gy)
+    {
+        if (getDistance(sx, sy, gx, gy) < ROUTE_MIN_DISTANCE || !isInside(sx, sy) || !isInside(gx, gy))
+        {
+            return Collections.emptyList();
+        }
+        flush();
+
+        final Integer start = key(sx, sy);
+        final Integer goal = key(gx, gy);
+        final Map<Integer, Integer> fromStart = connect(sx, sy);
+        final Map<Integer, Integer> toGoal = connect(gx, gy);
+
+        final Map<Integer, Integer> costs = new HashMap<>();
+        final Map<Integer, Integer> parents = new HashMap<>();
+        final PriorityQueue<int[]> open = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        for (final Map.Entry<Integer, Integer> entry : fromStart.entrySet())
+        {
+            relax(open, costs, parents, entry.getKey(), entry.getValue().intValue(), start, goal);
+        }
+
+        while (!open.isEmpty())
+        {
+            final int[] current = open.poll();
+            final Integer node = Integer.valueOf(current[1]);
+            final int cost = costs.get(node).intValue();
+            if (node.equals(goal))
+            {
+                return getPortals(parents, start, goal);
+            }
+            if (current[0] > cost + heuristic(node, goal))
+            {
+                continue;
+            }
+
+            final Integer last = toGoal.get(node);
+            if (last != null)
+            {
+                relax(open, costs, parents, goal, cost + last.intValue(), node, goal);
+            }
+            for (final Integer facing : inter.getOrDefault(node, Collections.emptySet()))
+            {
+                relax(open, costs, parents, facing, cost + 1, node, goal);
+            }
+            final Map<Integer, Integer> edges = intra.get(cluster(node.intValue())).get(node);
+            if (edges != null)
+            {
+                for (final Map.Entry<Integer, Integer> edge : edges.entrySet())
+                {
+                    relax(open, costs, parents, edge.getKey(), cost + edge.getValue().intValue(), node, goal);
+                }
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Store node cost if better than current one.
+     * 
+     * @param open The open nodes.
+     * @param costs The nodes cost.
+     * @param parents The nodes parent.
+     * @param node The reached node.
+     * @param cost The reached cost.
+     * @param parent The parent node.
+     * @param goal The goal node.
+     */
+    private void relax(PriorityQueue<int[]> open,
+                       Map<Integer, Integer> costs,
+                       Map<Integer, Integer> parents,
+                       Integer node,
+                       int cost,
+                       Integer parent,
+                       Integer goal)
+    {
+        final Integer old = costs.get(node);
+        if (!node.equals(parent) && (old == null || cost < old.intValue()))
+        {
+            costs.put(node, Integer.valueOf(cost));
+            parents.put(node, parent);
+            open.add(new int[]
+            {
+                cost + heuristic(node, goal), node.intValue()
+            });
+        }
+    }
+
+    /**
+     * Get the entered portals from found path.
+     * 
+     * @param parents The nodes parent.
+     * @param start The start node.
+     * @param goal The goal node.
+     * @return The entered portals.
+     */
+    private List<CoordTile> getPortals(Map<Integer, Integer> parents, Integer start, Integer goal)
+    {
+        final List<Integer> path = new ArrayList<>();
+        Integer node = parents.get(goal);
+        while (node != null && !node.equals(start))
+        {
+            path.add(node);
+            node = parents.get(node);
+        }
+        Collections.reverse(path);
+
+        final List<CoordTile> portals = new ArrayList<>();
+        final int n = path.size();
+        for (int i = 1; i < n; i++)
+        {
+            final Integer current = path.get(i);
+            if (inter.getOrDefault(path.get(i - 1), Collections.emptySet()).contains(current))
+            {
+                portals.add(new CoordTile(current.intValue() % width, current.intValue() / width));
+            }
+        }
+        return portals;
+    }
+
+    /**
+     * Get the distance estimation to goal.
+     * 
+     * @param node The current node.
+     * @param goal The goal node.
+     * @return The estimated distance.
+     */
+    private int heuristic(Integer node, Integer goal)
+    {
+        final int a = node.intValue();
+        final int b = goal.intValue();
+        return getDistance(a % width, a / width, b % width, b / width);
+    }
+
+    /**
+     * Get the reachable portals of the tile cluster.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return The reachable portals with their distance.
+     */
+    private Map<Integer, Integer> connect(int tx, int ty)
+    {
+        final int c = cluster(key(tx, ty).intValue());
+        final int[] distances = getDistances(c, tx, ty);
+        final Map<Integer, Integer> reached = new HashMap<>();
+        for (final Integer portal : intra.get(Integer.valueOf(c)).keySet())
+        {
+            final int distance = distances[local(c, portal.intValue())];
+            if (distance >= 0)
+            {
+                reached.put(portal, Integer.valueOf(distance));
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Rebuild changed clusters, their borders and neighbours.
+     */
+    private void flush()
+    {
+        if (dirty.isEmpty())
+        {
+            return;
+        }
+        final Set<Integer> rebuilt = new HashSet<>();
+        final Set<Integer> affected = new HashSet<>();
+        for (final Integer c : dirty)
+        {
+            refresh(c.intValue());
+        }
+        for (final Integer c : dirty)
+        {
+            final int cx = c.intValue() % clustersWidth;
+            final int cy = c.intValue() / clustersWidth;
+            affected.add(c);
+            if (cx + 1 < clustersWidth)
+            {
+                buildBorder(rebuilt, cy * clustersWidth + cx, false);
+                affected.add(Integer.valueOf(c.intValue() + 1));
+            }
+            if (cy + 1 < clustersHeight)
+            {
+                buildBorder(rebuilt, cy * clustersWidth + cx, true);
+                affected.add(Integer.valueOf(c.intValue() + clustersWidth));
+            }
+            if (cx > 0)
+            {
+                buildBorder(rebuilt, cy * clustersWidth + cx - 1, false);
+                affected.add(Integer.valueOf(c.intValue() - 1));
+            }
+            if (cy > 0)
+            {
+                buildBorder(rebuilt, (cy - 1) * clustersWidth + cx, true);
+                affected.add(Integer.valueOf(c.intValue() - clustersWidth));
+            }
+        }
+        dirty.clear();
+        for (final Integer c : affected)
+        {
+            buildIntra(c.intValue());
+        }
+    }
+
+    /**
+     * Refresh cluster tiles walkable state.
+     * 
+     * @param c The cluster index.
+     */
+    private void refresh(int c)
+    {
+        final int x0 = c % clustersWidth * CLUSTER_SIZE;
+        final int y0 = c / clustersWidth * CLUSTER_SIZE;
+        final int x1 = Math.min(width, x0 + CLUSTER_SIZE);
+        final int y1 = Math.min(height, y0 + CLUSTER_SIZE);
+        for (int ty = y0; ty < y1; ty++)
+        {
+            for (int tx = x0; tx < x1; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                walkable[ty * width + tx] = tile != null
+                                            && Constant.CATEGORY_GROUND.equals(mapPath.getCategory(tile))
+                                            && !hasStructure(tx, ty);
+            }
+        }
+    }
+
+    /**
+     * Build border portals between cluster and its right or top neighbour.
+     * 
+     * @param rebuilt The already rebuilt borders.
+     * @param c The cluster index.
+     * @param top <code>true</code> for top border, <code>false</code> for right border.
+     */
+    private void buildBorder(Set<Integer> rebuilt, int c, boolean top)
+    {
+        final Integer id = Integer.valueOf(c * 2 + (top ? 1 : 0));
+        if (!rebuilt.add(id))
+        {
+            return;
+        }
+        final int[] old = borders.remove(id);
+        if (old != null)
+        {
+            for (int i = 0; i < old.length; i += 2)
+            {
+                unlink(old[i], old[i + 1]);
+                unlink(old[i + 1], old[i]);
+            }
+        }
+
+        final int x0 = c % clustersWidth * CLUSTER_SIZE;
+        final int y0 = c / clustersWidth * CLUSTER_SIZE;
+        final int count = Math.min(CLUSTER_SIZE, (top ? width - x0 : height - y0));
+        final List<Integer> pairs = new ArrayList<>();
+        int run = -1;
+        for (int i = 0; i <= count; i++)
+        {
+            final boolean opened = i < count && isBorderOpen(x0, y0, i, top);
+            if (opened && run < 0)
+            {
+                run = i;
+            }
+            else if (!opened && run >= 0)
+            {
+                final int mid = (run + i - 1) / 2;
+                final int a;
+                final int b;
+                if (top)
+                {
+                    a = key(x0 + mid, y0 + CLUSTER_SIZE - 1).intValue();
+                    b = a + width;
+                }
+                else
+                {
+                    a = key(x0 + CLUSTER_SIZE - 1, y0 + mid).intValue();
+                    b = a + 1;
+                }
+                pairs.add(Integer.valueOf(a));
+                pairs.add(Integer.valueOf(b));
+                inter.computeIfAbsent(Integer.valueOf(a), k -> new HashSet<>()).add(Integer.valueOf(b));
+                inter.computeIfAbsent(Integer.valueOf(b), k -> new HashSet<>()).add(Integer.valueOf(a));
+                run = -1;
+            }
+        }
+        borders.put(id, pairs.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Check if both sides of a border are walkable.
+     * 
+     * @param x0 The cluster horizontal tile.
+     * @param y0 The cluster vertical tile.
+     * @param i The border offset.
+     * @param top <code>true</code> for top border, <code>false</code> for right border.
+     * @return <code>true</code> if border can be crossed here, <code>false</code> else.
+     */
+    private boolean isBorderOpen(int x0, int y0, int i, boolean top)
+    {
+        if (top)
+        {
+            return isOpen(x0 + i, y0 + CLUSTER_SIZE - 1) && isOpen(x0 + i, y0 + CLUSTER_SIZE);
+        }
+        return isOpen(x0 + CLUSTER_SIZE - 1, y0 + i) && isOpen(x0 + CLUSTER_SIZE, y0 + i);
+    }
+
+    /**
+     * Remove facing link.
+     * 
+     * @param from The portal tile.
+     * @param to The facing tile.
+     */
+    private void unlink(int from, int to)
+    {
+        final Integer key = Integer.valueOf(from);
+        final Set<Integer> facing = inter.get(key);
+        if (facing != null)
+        {
+            facing.remove(Integer.valueOf(to));
+            if (facing.isEmpty())
+            {
+                inter.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Build portal distances inside cluster.
+     * 
+     * @param c The cluster index.
+     */
+    private void buildIntra(int c)
+    {
+        final Collection<Integer> portals = new ArrayList<>();
+        final int x0 = c % clustersWidth * CLUSTER_SIZE;
+        final int y0 = c / clustersWidth * CLUSTER_SIZE;
+        final int x1 = Math.min(width, x0 + CLUSTER_SIZE);
+        final int y1 = Math.min(height, y0 + CLUSTER_SIZE);
+        for (int ty = y0; ty < y1; ty++)
+        {
+            for (int tx = x0; tx < x1; tx++)
+            {
+                final Integer key = key(tx, ty);
+                if (inter.containsKey(key))
+                {
+                    portals.add(key);
+                }
+            }
+        }
+
+        final Map<Integer, Map<Integer, Integer>> edges = new HashMap<>();
+        for (final Integer portal : portals)
+        {
+            final int[] distances = getDistances(c, portal.intValue() % width, portal.intValue() / width);
+            final Map<Integer, Integer> reached = new HashMap<>();
+            for (final Integer other : portals)
+            {
+                final int distance = distances[local(c, other.intValue())];
+                if (!other.equals(portal) && distance >= 0)
+                {
+                    reached.put(other, Integer.valueOf(distance));
+                }
+            }
+            edges.put(portal, reached);
+        }
+        intra.put(Integer.valueOf(c), edges);
+    }
+
+    /**
+     * Get walking distances inside cluster from a tile, which may itself be blocked (such as a structure).
+     * 
+     * @param c The cluster index.
+     * @param sx The horizontal start tile.
+     * @param sy The vertical start tile.
+     * @return The distances by local index, negative if unreachable.
+     */
+    private int[] getDistances(int c, int sx, int sy)
+    {
+        final int x0 = c % clustersWidth * CLUSTER_SIZE;
+        final int y0 = c / clustersWidth * CLUSTER_SIZE;
+        final int x1 = Math.min(width, x0 + CLUSTER_SIZE);
+        final int y1 = Math.min(height, y0 + CLUSTER_SIZE);
+
+        final int[] distances = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        Arrays.fill(distances, -1);
+        final int[] queue = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = key(sx, sy).intValue();
+        distances[local(c, queue[0])] = 0;
+
+        while (head < tail)
+        {
+            final int current = queue[head++];
+            final int cx = current % width;
+            final int cy = current / width;
+            final int distance = distances[local(c, current)] + 1;
+            for (int oy = -1; oy < 2; oy++)
+            {
+                for (int ox = -1; ox < 2; ox++)
+                {
+                    final int tx = cx + ox;
+                    final int ty = cy + oy;
+                    if (tx >= x0
+                        && ty >= y0
+                        && tx < x1
+                        && ty < y1
+                        && isOpen(tx, ty)
+                        && (ox == 0 || oy == 0 || isOpen(cx + ox, cy) && isOpen(cx, cy + oy)))
+                    {
+                        final int next = ty * width + tx;
+                        final int index = local(c, next);
+                        if (distances[index] < 0)
+                        {
+                            distances[index] = distance;
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Notify listeners that area changed.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @param tw The width in tile.
+     * @param th The height in tile.
+     */
+    private void notifyChanged(int tx, int ty, int tw, int th)
+    {
+        final int n = listeners.size();
+        for (int i = 0; i < n; i++)
+        {
+            listeners.get(i).notifyChanged(tx, ty, tw, th);
+        }
+    }
+
+    /**
+     * Mark pathfindable area as changed.
+     * 
+     * @param pathfindable The pathfindable reference.
+     */
+    private void invalidate(Pathfindable pathfindable)
+    {
+        invalidate(pathfindable.getInTileX(),
+                   pathfindable.getInTileY(),
+                   pathfindable.getInTileWidth(),
+                   pathfindable.getInTileHeight());
+    }
+
+    /**
+     * Check if tile has a structure on it.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if structure found, <code>false</code> else.
+     */
+    private boolean hasStructure(int tx, int ty)
+    {
+        for (final Integer id : mapPath.getObjectsId(tx, ty))
+        {
+            if (structures.contains(id))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if tile is inside map and walkable.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if walkable, <code>false</code> else.
+     */
+    private boolean isOpen(int tx, int ty)
+    {
+        return isInside(tx, ty) && walkable[ty * width + tx];
+    }
+
+    /**
+     * Check if tile is inside map.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+
+    /**
+     * Get tile key.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return The tile key.
+     */
+    private Integer key(int tx, int ty)
+    {
+        return Integer.valueOf(ty * width + tx);
+    }
+
+    /**
+     * Get tile cluster index.
+     * 
+     * @param key The tile key.
+     * @return The cluster index.
+     */
+    private int cluster(int key)
+    {
+        return key / width / CLUSTER_SIZE * clustersWidth + key % width / CLUSTER_SIZE;
+    }
+
+    /**
+     * Get tile index inside its cluster.
+     * 
+     * @param c The cluster index.
+     * @param key The tile key.
+     * @return The local index.
+     */
+    private int local(int c, int key)
+    {
+        final int x0 = c % clustersWidth * CLUSTER_SIZE;
+        final int y0 = c / clustersWidth * CLUSTER_SIZE;
+        return (key / width - y0) * CLUSTER_SIZE + key % width - x0;
+    }
+}
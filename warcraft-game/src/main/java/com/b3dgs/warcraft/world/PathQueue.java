@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.Tiled;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.CoordTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.object.EntityUpdater;
+
+/**
+ * Path requests queue, solved in request order with a maximum number of requests per update.
+ * <p>
+ * A new request of the same pathfindable replaces its pending one. Pending pathfindable are considered as moving
+ * until their request is solved.
+ * </p>
+ * <p>
+ * Long requests are routed through {@link PathClusters} portals: each portal is requested as a short hop once the
+ * previous one is reached, and the real destination is requested last.
+ * </p>
+ * <p>
+ * Move orders step along the shared {@link FlowFields} instead, one adjacent tile each time the previous one is
+ * reached, out of the requests budget as there is nothing to search. Only the last tile is searched, or the remaining
+ * way if the next tile stays occupied for {@value #STEP_WAIT} updates.
+ * </p>
+ */
+public class PathQueue implements Updatable
+{
+    /** Updates waited for an occupied step before searching the destination. */
+    private static final int STEP_WAIT = 8;
+
+    private final Map<Pathfindable, Runnable> pending = new LinkedHashMap<>();
+    private final Map<Pathfindable, Deque<Runnable>> routes = new LinkedHashMap<>();
+    private final Map<Pathfindable, Step> steps = new LinkedHashMap<>();
+    private final PathClusters clusters;
+    private final FlowFields fields;
+
+    private int budget = Constant.PATH_REQUESTS_PER_UPDATE;
+
+    /**
+     * Create queue.
+     * 
+     * @param services The services reference.
+     */
+    public PathQueue(Services services)
+    {
+        super();
+
+        clusters = services.get(PathClusters.class);
+        fields = services.get(FlowFields.class);
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(Pathfindable.class))
+                {
+                    cancel(featurable.getFeature(Pathfindable.class));
+                }
+            }
+        });
+    }
+
+    /**
+     * Set the maximum number of requests solved per update.
+     * 
+     * @param budget The requests budget (strictly positive).
+     */
+    public void setBudget(int budget)
+    {
+        this.budget = Math.max(1, budget);
+    }
+
+    /**
+     * Request a path to tile.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     */
+    public void request(Pathfindable pathfindable, int tx, int ty)
+    {
+        route(pathfindable, tx, ty, () -> pathfindable.setDestination(tx, ty));
+    }
+
+    /**
+     * Request a move order to tile, following the goal flow field.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     */
+    public void requestMove(Pathfindable pathfindable, int tx, int ty)
+    {
+        request(pathfindable, () ->
+        {
+            final Step step = new Step(tx, ty, () -> pathfindable.setDestination(tx, ty));
+            if (step(pathfindable, step))
+            {
+                steps.put(pathfindable, step);
+            }
+        });
+    }
+
+    /**
+     * Request a path to tiled.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param destination The destination reference.
+     */
+    public void request(Pathfindable pathfindable, Tiled destination)
+    {
+        route(pathfindable,
+              destination.getInTileX(),
+              destination.getInTileY(),
+              () -> pathfindable.setDestination(destination));
+    }
+
+    /**
+     * Request a path with a custom solver, such as a destination tracking a moving target.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param solver The solver called when request is processed.
+     */
+    public void request(Pathfindable pathfindable, Runnable solver)
+    {
+        routes.remove(pathfindable);
+        steps.remove(pathfindable);
+        pending.put(pathfindable, solver);
+        pathfindable.getFeature(EntityUpdater.class).wake();
+    }
+
+    /**
+     * Cancel pending request if has one.
+     * 
+     * @param pathfindable The pathfindable reference.
+     */
+    public void cancel(Pathfindable pathfindable)
+    {
+        routes.remove(pathfindable);
+        steps.remove(pathfindable);
+        pending.remove(pathfindable);
+    }
+
+    /**
+     * Check if pathfindable is waiting for its path.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @return <code>true</code> if request is pending, <code>false</code> else.
+     */
+    public boolean isPending(Pathfindable pathfindable)
+    {
+        return pending.containsKey(pathfindable) || routes.containsKey(pathfindable) || steps.containsKey(pathfindable);
+    }
+
+    /**
+     * Check if pathfindable has reached its destination, with no pending request.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @return <code>true</code> if destination reached, <code>false</code> else.
+     */
+    public boolean isReached(Pathfindable pathfindable)
+    {
+        return !isPending(pathfindable) && pathfindable.isDestinationReached();
+    }
+
+    /**
+     * Request a path, through portals if destination is far.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param tx The horizontal destination tile.
+     * @param ty The vertical destination tile.
+     * @param last The solver to final destination.
+     */
+    private void route(Pathfindable pathfindable, int tx, int ty, Runnable last)
+    {
+        request(pathfindable,
+                () -> follow(pathfindable,
+                             clusters.getRoute(pathfindable.getInTileX(), pathfindable.getInTileY(), tx, ty),
+                             last));
+    }
+
+    /**
+     * Follow waypoints, then final destination.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param waypoints The waypoints to follow (may be empty).
+     * @param last The solver to final destination.
+     */
+    private void follow(Pathfindable pathfindable, List<CoordTile> waypoints, Runnable last)
+    {
+        if (waypoints.isEmpty())
+        {
+            last.run();
+        }
+        else
+        {
+            final Deque<Runnable> hops = new ArrayDeque<>();
+            for (final CoordTile waypoint : waypoints)
+            {
+                hops.add(() -> hop(pathfindable, waypoint, last));
+            }
+            hops.add(last);
+            routes.put(pathfindable, hops);
+            hops.poll().run();
+        }
+    }
+
+    /**
+     * Move to next waypoint, or directly to destination if waypoint cannot be reached.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param waypoint The waypoint to reach.
+     * @param last The solver to final destination.
+     */
+    private void hop(Pathfindable pathfindable, CoordTile waypoint, Runnable last)
+    {
+        if (!pathfindable.setDestination(waypoint.getX(), waypoint.getY()))
+        {
+            routes.remove(pathfindable);
+            last.run();
+        }
+    }
+
+    /**
+     * Move to next field tile. Destination is requested instead once adjacent, unreachable, or after waiting too long
+     * for an occupied tile.
+     * 
+     * @param pathfindable The pathfindable reference.
+     * @param step The move order.
+     * @return <code>true</code> if still stepping, <code>false</code> if destination has been requested.
+     */
+    private boolean step(Pathfindable pathfindable, Step step)
+    {
+        final CoordTile next = fields.getNext(pathfindable.getInTileX(), pathfindable.getInTileY(), step.tx, step.ty);
+        if (next != null)
+        {
+            if (pathfindable.setDestination(next.getX(), next.getY()))
+            {
+                step.waited = 0;
+                return true;
+            }
+            if (step.waited++ < STEP_WAIT)
+            {
+                return true;
+            }
+        }
+        pending.put(pathfindable, step.last);
+        return false;
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        final Iterator<Map.Entry<Pathfindable, Step>> walkers = steps.entrySet().iterator();
+        while (walkers.hasNext())
+        {
+            final Map.Entry<Pathfindable, Step> walker = walkers.next();
+            final Pathfindable pathfindable = walker.getKey();
+            if (!pathfindable.isMoving() && !step(pathfindable, walker.getValue()))
+            {
+                walkers.remove();
+            }
+        }
+
+        final Iterator<Map.Entry<Pathfindable, Deque<Runnable>>> followers = routes.entrySet().iterator();
+        while (followers.hasNext())
+        {
+            final Map.Entry<Pathfindable, Deque<Runnable>> follower = followers.next();
+            final Pathfindable pathfindable = follower.getKey();
+            if (!pending.containsKey(pathfindable) && !pathfindable.isMoving())
+            {
+                final Deque<Runnable> hops = follower.getValue();
+                pending.put(pathfindable, hops.poll());
+                if (hops.isEmpty())
+                {
+                    followers.remove();
+                }
+            }
+        }
+
+        for (int i = 0; i < budget && !pending.isEmpty(); i++)
+        {
+            // Removed before solving, as solver may request again
+            final Iterator<Runnable> solvers = pending.values().iterator();
+            final Runnable solver = solvers.next();
+            solvers.remove();
+            solver.run();
+        }
+    }
+
+    /**
+     * Move order stepping along its goal field.
+     */
+    private static final class Step
+    {
+        /** Horizontal destination tile. */
+        private final int tx;
+        /** Vertical destination tile. */
+        private final int ty;
+        /** Solver to final destination. */
+        private final Runnable last;
+        /** Updates waited for an occupied next tile. */
+        private int waited;
+
+        /**
+         * Create step.
+         * 
+         * @param tx The horizontal destination tile.
+         * @param ty The vertical destination tile.
+         * @param last The solver to final destination.
+         */
+        Step(int tx, int ty, Runnable last)
+        {
+            this.tx = tx;
+            this.ty = ty;
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BooleanSupplier;
+
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.object.feature.AutoAttack;
+
+/**
+ * Target scans queue, granted in request order with a maximum number of scans per update.
+ * <p>
+ * Scans of entities close to enemies are granted before the others. Requests left over wait for the next update, so a
+ * burst of requests is spread over several updates instead of being searched at once.
+ * </p>
+ * <p>
+ * Entities leaving the handler stop their {@link AutoAttack}, and a grant refused by a stopped entity does not count
+ * in the budget.
+ * </p>
+ */
+public class ScanQueue implements Updatable
+{
+    private final Deque<BooleanSupplier> alerted = new ArrayDeque<>();
+    private final Deque<BooleanSupplier> safe = new ArrayDeque<>();
+
+    private int stagger;
+
+    /**
+     * Create queue.
+     * 
+     * @param services The services reference.
+     */
+    public ScanQueue(Services services)
+    {
+        super();
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(AutoAttack.class))
+                {
+                    featurable.getFeature(AutoAttack.class).stop();
+                }
+            }
+        });
+    }
+
+    /**
+     * Request a scan.
+     * 
+     * @param grant The action called when scan is granted, <code>false</code> if refused.
+     * @param alert <code>true</code> if close to enemies, <code>false</code> else.
+     */
+    public void request(BooleanSupplier grant, boolean alert)
+    {
+        if (alert)
+        {
+            alerted.add(grant);
+        }
+        else
+        {
+            safe.add(grant);
+        }
+    }
+
+    /**
+     * Get the next first scan delay, so entities started together do not scan on the same update.
+     * 
+     * @param period The scan period in tick.
+     * @return The delay in tick, between one and period.
+     */
+    public int getStagger(int period)
+    {
+        stagger = (stagger + 1) % period;
+        return stagger + 1;
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        int granted = 0;
+        while (granted < Constant.SCANS_PER_UPDATE)
+        {
+            final BooleanSupplier grant;
+            if (!alerted.isEmpty())
+            {
+                grant = alerted.poll();
+            }
+            else if (!safe.isEmpty())
+            {
+                grant = safe.poll();
+            }
+            else
+            {
+                break;
+            }
+            if (grant.getAsBoolean())
+            {
+                granted++;
+            }
+        }
+    }
+}
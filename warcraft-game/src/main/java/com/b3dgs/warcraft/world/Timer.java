@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+/**
+ * Timer scheduled on the {@link TimerWheel}, which can be scheduled again once expired or canceled.
+ */
+public final class Timer
+{
+    /** Expiring action. */
+    final Runnable action;
+    /** Expiring tick. */
+    long expiry;
+    /** Previous timer in bucket, <code>null</code> if not pending. */
+    Timer previous;
+    /** Next timer in bucket, <code>null</code> if not pending. */
+    Timer next;
+
+    /**
+     * Create timer.
+     * 
+     * @param action The action called on expiry.
+     */
+    public Timer(Runnable action)
+    {
+        super();
+
+        this.action = action;
+    }
+
+    /**
+     * Check if timer is waiting for its expiry.
+     * 
+     * @return <code>true</code> if pending, <code>false</code> else.
+     */
+    public boolean isPending()
+    {
+        return previous != null;
+    }
+
+    /**
+     * Cancel timer if pending.
+     */
+    public void cancel()
+    {
+        if (previous != null)
+        {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+        }
+    }
+
+    /**
+     * Add timer at the end of a bucket.
+     * 
+     * @param head The bucket head.
+     */
+    void link(Timer head)
+    {
+        previous = head.previous;
+        next = head;
+        head.previous.next = this;
+        head.previous = this;
+    }
+}
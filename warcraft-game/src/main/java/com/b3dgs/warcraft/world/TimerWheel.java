@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import com.b3dgs.lionengine.Updatable;
+
+/**
+ * Hierarchical timer wheel, calling actions after a delay in tick.
+ * <p>
+ * Near wheel has one bucket per tick for the next {@value #NEAR} ticks. Farther timers wait in coarser wheels of
+ * {@value #LEVEL} buckets each, and are moved down to a finer wheel when its buckets wrap. Schedule and cancel are
+ * constant time, and an update only visits the expiring bucket, so pending timers cost nothing until due.
+ * </p>
+ */
+public class TimerWheel implements Updatable
+{
+    /** Near wheel bits. */
+    private static final int NEAR_BITS = 8;
+    /** Near wheel buckets. */
+    private static final int NEAR = 1 << NEAR_BITS;
+    /** Coarse wheels bits. */
+    private static final int LEVEL_BITS = 6;
+    /** Coarse wheel buckets. */
+    private static final int LEVEL = 1 << LEVEL_BITS;
+    /** Coarse wheels number. */
+    private static final int LEVELS = 2;
+
+    /**
+     * Create empty buckets.
+     * 
+     * @param count The buckets number.
+     * @return The bucket heads.
+     */
+    private static Timer[] createBuckets(int count)
+    {
+        final Timer[] buckets = new Timer[count];
+        for (int i = 0; i < count; i++)
+        {
+            final Timer head = new Timer(null);
+            head.previous = head;
+            head.next = head;
+            buckets[i] = head;
+        }
+        return buckets;
+    }
+
+    private final Timer[] near = createBuckets(NEAR);
+    private final Timer[][] levels = new Timer[LEVELS][];
+
+    private long now;
+    private double elapsed;
+
+    /**
+     * Create wheel.
+     */
+    public TimerWheel()
+    {
+        super();
+
+        for (int i = 0; i < LEVELS; i++)
+        {
+            levels[i] = createBuckets(LEVEL);
+        }
+    }
+
+    /**
+     * Schedule a new timer.
+     * 
+     * @param delay The delay in tick (at least one).
+     * @param action The action called on expiry.
+     * @return The scheduled timer.
+     */
+    public Timer schedule(int delay, Runnable action)
+    {
+        final Timer timer = new Timer(action);
+        schedule(timer, delay);
+        return timer;
+    }
+
+    /**
+     * Schedule timer, replacing its pending expiry if any.
+     * 
+     * @param timer The timer to schedule.
+     * @param delay The delay in tick (at least one).
+     */
+    public void schedule(Timer timer, int delay)
+    {
+        timer.cancel();
+        timer.expiry = now + Math.max(1, delay);
+        insert(timer);
+    }
+
+    /**
+     * Get the remaining delay before timer expiry.
+     * 
+     * @param timer The timer reference.
+     * @return The remaining delay in tick, <code>0</code> if not pending.
+     */
+    public int getRemaining(Timer timer)
+    {
+        if (timer.isPending())
+        {
+            return (int) (timer.expiry - now);
+        }
+        return 0;
+    }
+
+    /**
+     * Add timer to the bucket of its expiry.
+     * 
+     * @param timer The timer to add.
+     */
+    private void insert(Timer timer)
+    {
+        final long delay = timer.expiry - now;
+        if (delay < NEAR)
+        {
+            timer.link(near[(int) (timer.expiry & NEAR - 1)]);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++)
+        {
+            final int shift = NEAR_BITS + level * LEVEL_BITS;
+            final long range = 1L << shift + LEVEL_BITS;
+            if (delay < range || level == LEVELS - 1)
+            {
+                // Beyond last wheel, waits in its farthest bucket and is inserted again when moved down
+                final long at = Math.min(timer.expiry, now + range - 1);
+                timer.link(levels[level][(int) (at >>> shift & LEVEL - 1)]);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Move down the current bucket of a coarse wheel, after its coarser one.
+     * 
+     * @param level The wheel level.
+     */
+    private void cascade(int level)
+    {
+        final int shift = NEAR_BITS + level * LEVEL_BITS;
+        final int index = (int) (now >>> shift & LEVEL - 1);
+        if (index == 0 && level + 1 < LEVELS)
+        {
+            cascade(level + 1);
+        }
+        final Timer head = levels[level][index];
+        while (head.next != head)
+        {
+            final Timer timer = head.next;
+            timer.cancel();
+            insert(timer);
+        }
+    }
+
+    /**
+     * Advance one tick and call expired actions.
+     */
+    private void tick()
+    {
+        now++;
+        final int index = (int) (now & NEAR - 1);
+        if (index == 0)
+        {
+            cascade(0);
+        }
+        final Timer head = near[index];
+        while (head.next != head)
+        {
+            final Timer timer = head.next;
+            timer.cancel();
+            timer.action.run();
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        elapsed += extrp;
+        while (elapsed >= 1.0)
+        {
+            elapsed -= 1.0;
+            tick();
+        }
+    }
+}
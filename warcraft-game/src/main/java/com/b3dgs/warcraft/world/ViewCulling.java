@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
+
+/**
+ * Entities overlapping the camera view, collected once per update from the {@link EntityIndex}.
+ * <p>
+ * The view is extended by {@value #MARGIN} tiles on each side, so large sprites anchored outside of it are kept.
+ * Renderers skip entities out of view before any other check.
+ * </p>
+ */
+public class ViewCulling implements Updatable
+{
+    /** View margin in tile, covering the largest sprite. */
+    private static final int MARGIN = 4;
+
+    private final Set<Pathfindable> inView = new HashSet<>();
+    private final Camera camera;
+    private final MapTile map;
+    private final EntityIndex index;
+
+    /**
+     * Create culling.
+     * 
+     * @param services The services reference.
+     */
+    public ViewCulling(Services services)
+    {
+        super();
+
+        camera = services.get(Camera.class);
+        map = services.get(MapTile.class);
+        index = services.get(EntityIndex.class);
+    }
+
+    /**
+     * Check if entity overlaps the camera view.
+     * 
+     * @param pathfindable The entity reference.
+     * @return <code>true</code> if in view, <code>false</code> else.
+     */
+    public boolean isInView(Pathfindable pathfindable)
+    {
+        return inView.contains(pathfindable);
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        final int tx = (int) Math.floor(camera.getX() / map.getTileWidth()) - MARGIN;
+        final int ty = (int) Math.floor(camera.getY() / map.getTileHeight()) - MARGIN;
+        final int tw = camera.getWidth() / map.getTileWidth() + MARGIN * 2 + 1;
+        final int th = camera.getHeight() / map.getTileHeight() + MARGIN * 2 + 1;
+
+        inView.clear();
+        index.getInArea(tx, ty, tw, th, inView);
+    }
+}
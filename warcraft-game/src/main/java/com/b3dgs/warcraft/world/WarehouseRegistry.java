@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft.world;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.Tiled;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.HandlerListener;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.warcraft.Race;
+import com.b3dgs.warcraft.Util;
+import com.b3dgs.warcraft.object.feature.EntityStats;
+import com.b3dgs.warcraft.object.feature.Warehouse;
+
+/**
+ * Warehouses by race, kept current with handler events.
+ */
+public class WarehouseRegistry
+{
+    private final Map<Race, List<Warehouse>> warehouses = new EnumMap<>(Race.class);
+
+    /**
+     * Create registry.
+     * 
+     * @param services The services reference.
+     */
+    public WarehouseRegistry(Services services)
+    {
+        super();
+
+        for (final Race race : Race.values())
+        {
+            warehouses.put(race, new ArrayList<>());
+        }
+
+        services.get(Handler.class).addListener(new HandlerListener()
+        {
+            @Override
+            public void notifyHandlableAdded(Featurable featurable)
+            {
+                if (featurable.hasFeature(Warehouse.class))
+                {
+                    getWarehouses(featurable).add(featurable.getFeature(Warehouse.class));
+                }
+            }
+
+            @Override
+            public void notifyHandlableRemoved(Featurable featurable)
+            {
+                if (featurable.hasFeature(Warehouse.class))
+                {
+                    getWarehouses(featurable).remove(featurable.getFeature(Warehouse.class));
+                }
+            }
+        });
+    }
+
+    /**
+     * Get race warehouses.
+     * 
+     * @param race The owner race.
+     * @return The owner warehouses (unmodifiable).
+     */
+    public List<Warehouse> get(Race race)
+    {
+        return Collections.unmodifiableList(warehouses.get(race));
+    }
+
+    /**
+     * Get the closest race warehouse.
+     * 
+     * @param race The owner race.
+     * @param from The location reference.
+     * @return The closest owner warehouse, <code>null</code> if none.
+     */
+    public Warehouse getClosest(Race race, Tiled from)
+    {
+        final List<Warehouse> owned = warehouses.get(race);
+        final int n = owned.size();
+        if (n == 1)
+        {
+            return owned.get(0);
+        }
+
+        Warehouse closest = null;
+        double closestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < n; i++)
+        {
+            final Warehouse warehouse = owned.get(i);
+            final double distance = Util.getDistanceInTile(from, warehouse);
+            if (distance < closestDistance)
+            {
+                closest = warehouse;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Get the warehouses of featurable race.
+     * 
+     * @param featurable The featurable reference.
+     * @return The race warehouses.
+     */
+    private List<Warehouse> getWarehouses(Featurable featurable)
+    {
+        return warehouses.get(featurable.getFeature(EntityStats.class).getRace());
+    }
+}
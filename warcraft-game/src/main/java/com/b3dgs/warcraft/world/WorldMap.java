@@ -20,9 +20,7 @@ import java.io.IOException;
 
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.Persistable;
-import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Handler;
-import com.b3dgs.lionengine.game.feature.HandlerListener;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
@@ -31,9 +29,6 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePathModel;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableListener;
-import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindableListenerVoid;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.PathfindingConfig;
 import com.b3dgs.lionengine.game.feature.tile.map.persister.MapTilePersister;
 import com.b3dgs.lionengine.game.feature.tile.map.persister.MapTilePersisterModel;
@@ -44,14 +39,13 @@ import com.b3dgs.lionengine.game.feature.tile.map.transition.circuit.CircuitsCon
 import com.b3dgs.lionengine.game.feature.tile.map.transition.circuit.MapTileCircuit;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.circuit.MapTileCircuitModel;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.Fovable;
 import com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewer;
 import com.b3dgs.lionengine.game.feature.tile.map.viewer.MapTileViewerModel;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 import com.b3dgs.lionengine.io.FileReading;
 import com.b3dgs.lionengine.io.FileWriting;
-import com.b3dgs.warcraft.Player;
+import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.constant.Folder;
 import com.b3dgs.warcraft.constant.Gfx;
 
@@ -67,18 +61,9 @@ public class WorldMap implements Persistable
     private final MapTileTransition mapTransition;
     private final MapTileCircuit mapCircuit;
     private final FogOfWar fogOfWar;
-    private final Handler handler;
-    private final Player player;
-    private final PathfindableListener listener = new PathfindableListenerVoid()
-    {
-        @Override
-        public void notifyMoving(Pathfindable pathfindable)
-        {
-            fogOfWar.update(pathfindable.getFeature(Fovable.class));
-            // final Layerable layerable = pathfindable.getFeature(Layerable.class);
-            // layerable.setLayer(layerable.getLayerRefresh(), Integer.valueOf(pathfindable.getInTileY()));
-        }
-    };
+    private final Forest forest;
+    private final PathClusters clusters;
+    private final FieldOfView fieldOfView;
 
     /**
      * Create the world.
@@ -96,7 +81,6 @@ public class WorldMap implements Persistable
         mapTransition = map.addFeatureAndGet(new MapTileTransitionModel(services));
         mapCircuit = map.addFeatureAndGet(new MapTileCircuitModel(services));
         fogOfWar = services.add(map.addFeatureAndGet(new FogOfWar()));
-        player = services.get(Player.class);
 
         final MapTileViewer mapViewer = map.addFeatureAndGet(new MapTileViewerModel(services));
         mapViewer.addRenderer(fogOfWar);
@@ -105,49 +89,31 @@ public class WorldMap implements Persistable
         final SpriteTiled fog = Drawable.loadSpriteTiled(Gfx.FOG_FOGGED.getSurface(), 16, 16);
         fogOfWar.setTilesheet(hide, fog);
         fogOfWar.setEnabled(true, false);
+        fieldOfView = services.add(new FieldOfView(services));
+        fieldOfView.setEnabled(true, false);
 
-        handler = services.get(Handler.class);
-        handler.add(map);
-        handler.addListener(new HandlerListener()
-        {
-            @Override
-            public void notifyHandlableAdded(Featurable featurable)
-            {
-                handleAdded(featurable);
-            }
-
-            @Override
-            public void notifyHandlableRemoved(Featurable featurable)
-            {
-                handleRemoved(featurable);
-            }
-        });
-    }
-
-    /**
-     * Handle added featurable.
-     * 
-     * @param featurable The added featurable.
-     */
-    private void handleAdded(Featurable featurable)
-    {
-        if (featurable.hasFeature(Fovable.class) && player.owns(featurable))
-        {
-            featurable.getFeature(Pathfindable.class).addListener(listener);
-            fogOfWar.update(featurable.getFeature(Fovable.class));
-        }
+        services.get(Handler.class).add(map);
+        forest = services.add(new Forest(services));
+        clusters = services.add(new PathClusters(services));
+        services.add(new FlowFields(services));
     }
 
     /**
-     * Handle removed featurable.
+     * Cut trees again in cut order, restoring map changes since load.
      * 
-     * @param featurable The removed featurable.
+     * @param cuts The cut tree keys, as given by {@link Forest#getCuts()}.
      */
-    private void handleRemoved(Featurable featurable)
+    public void restoreCuts(int[] cuts)
     {
-        if (featurable.hasFeature(Fovable.class) && player.owns(featurable))
+        final int width = map.getInTileWidth();
+        for (final int cut : cuts)
         {
-            featurable.getFeature(Pathfindable.class).removeListener(listener);
+            final int tx = cut % width;
+            final int ty = cut / width;
+            map.setTile(tx, ty, Constant.TILE_NUM_TREE_CUT);
+            mapTransition.resolve(map.getTile(tx, ty));
+            forest.cut(tx, ty);
+            clusters.invalidate(tx - 1, ty - 1, 3, 3);
         }
     }
 
@@ -168,5 +134,8 @@ public class WorldMap implements Persistable
         mapTransition.loadTransitions(Medias.create(parent, TransitionsConfig.FILENAME));
         mapCircuit.loadCircuits(Medias.create(parent, CircuitsConfig.FILENAME));
         fogOfWar.create(map, Medias.create(Folder.FOG, "fog.xml"));
+        fieldOfView.load();
+        forest.load();
+        clusters.load();
     }
 }
@@ -46,6 +46,7 @@ public class WorldMinimap implements Resource, Renderable
     private final Player player;
     private final Minimap minimap;
     private final FogOfWar fogOfWar;
+    private final FieldOfView fieldOfView;
     private ImageBuffer buffer;
 
     /**
@@ -62,6 +63,7 @@ public class WorldMinimap implements Resource, Renderable
         handler = services.get(Handler.class);
         player = services.get(Player.class);
         fogOfWar = services.get(FogOfWar.class);
+        fieldOfView = services.get(FieldOfView.class);
 
         minimap = new Minimap(map);
     }
@@ -78,7 +80,7 @@ public class WorldMinimap implements Resource, Renderable
             final EntityStats stats = entity.getFeature(EntityStats.class);
             if (stats.getHealthPercent() > 0
                 && entity.getFeature(EntityModel.class).isVisible()
-                && fogOfWar.isVisible(entity))
+                && fieldOfView.isVisible(entity))
             {
                 drawEntity(g, entity, stats);
             }
@@ -18,7 +18,6 @@ package com.b3dgs.warcraft.world;
 
 import java.util.List;
 
-import com.b3dgs.lionengine.Tick;
 import com.b3dgs.lionengine.Updatable;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.game.Cursor;
@@ -31,7 +30,6 @@ import com.b3dgs.lionengine.game.feature.collidable.selector.Selector;
 import com.b3dgs.lionengine.game.feature.collidable.selector.SelectorModel;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
 import com.b3dgs.lionengine.io.InputDevicePointer;
 import com.b3dgs.warcraft.constant.Constant;
 import com.b3dgs.warcraft.object.EntityModel;
@@ -45,18 +43,21 @@ public class WorldNavigator implements Updatable
 {
     private static final int NAVIGATION_TICK = 3;
 
-    private final Tick navigationDelay = new Tick();
+    private final Timer navigationDelay = new Timer(() -> navigate = true);
 
     private final Camera camera;
     private final Cursor cursor;
     private final Handler handler;
     private final MapTile map;
     private final MapTilePath mapPath;
-    private final FogOfWar fogOfWar;
+    private final FieldOfView fieldOfView;
     private final Selector selector;
     private final SelectorModel selectorModel;
     private final InputDevicePointer pointer;
 
+    private final TimerWheel timers;
+
+    private boolean navigate;
     private boolean selectorEnabled;
     private boolean selectorBackup;
 
@@ -74,13 +75,14 @@ public class WorldNavigator implements Updatable
         handler = services.get(Handler.class);
         map = services.get(MapTile.class);
         mapPath = map.getFeature(MapTilePath.class);
-        fogOfWar = map.getFeature(FogOfWar.class);
+        fieldOfView = services.get(FieldOfView.class);
         selector = services.get(Selector.class);
         pointer = services.get(InputDevicePointer.class);
 
         selectorModel = selector.getFeature(SelectorModel.class);
         selectorEnabled = selectorModel.isEnabled();
-        navigationDelay.start();
+        timers = services.get(TimerWheel.class);
+        timers.schedule(navigationDelay, NAVIGATION_TICK);
     }
 
     /**
@@ -163,12 +165,11 @@ public class WorldNavigator implements Updatable
     @Override
     public void update(double extrp)
     {
-        navigationDelay.update(extrp);
-
-        if (navigationDelay.elapsed(NAVIGATION_TICK))
+        if (navigate)
         {
             updateNavigationPointer(extrp);
-            navigationDelay.restart();
+            navigate = false;
+            timers.schedule(navigationDelay, NAVIGATION_TICK);
         }
         updateNavigationMinimap(extrp);
         updateCursorOver();
@@ -200,8 +201,7 @@ public class WorldNavigator implements Updatable
             final int ty = map.getInTileY(cursor);
 
             if (cursor.getClick() == 0
-                && fogOfWar.isVisited(tx, ty)
-                && !fogOfWar.isFogged(tx, ty)
+                && fieldOfView.isVisible(tx, ty)
                 && isValidEntity(tx, ty))
             {
                 cursor.setRenderingOffset(-5, -5);
@@ -30,7 +30,6 @@ import com.b3dgs.lionengine.game.feature.collidable.selector.Selectable;
 import com.b3dgs.lionengine.game.feature.collidable.selector.SelectionListener;
 import com.b3dgs.lionengine.game.feature.collidable.selector.Selector;
 import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.Pathfindable;
-import com.b3dgs.lionengine.game.feature.tile.map.transition.fog.FogOfWar;
 import com.b3dgs.warcraft.Player;
 import com.b3dgs.warcraft.Race;
 import com.b3dgs.warcraft.Util;
@@ -57,7 +56,7 @@ public class WorldSelection
 
     private final Player player;
     private final Hud hud;
-    private final FogOfWar fogOfWar;
+    private final FieldOfView fieldOfView;
 
     /**
      * Create the world.
@@ -70,7 +69,7 @@ public class WorldSelection
 
         player = services.get(Player.class);
         hud = services.get(Hud.class);
-        fogOfWar = services.get(FogOfWar.class);
+        fieldOfView = services.get(FieldOfView.class);
 
         final Selector selector = services.get(Selector.class);
         selector.addListener(new SelectionListener()
@@ -184,6 +183,6 @@ public class WorldSelection
                || moving.get() && !mover
                || !player.owns(entity) && race.get() != null
                || !entity.getFeature(EntityModel.class).isVisible()
-               || !fogOfWar.isVisible(entity.getFeature(Pathfindable.class));
+               || !fieldOfView.isVisible(entity.getFeature(Pathfindable.class));
     }
 }
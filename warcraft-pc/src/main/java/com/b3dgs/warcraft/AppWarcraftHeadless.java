@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013-2020 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.warcraft;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Config;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.audio.AudioFactory;
+import com.b3dgs.lionengine.audio.AudioVoidFormat;
+import com.b3dgs.lionengine.graphic.engine.Loader;
+import com.b3dgs.lionengine.headless.graphic.EngineHeadless;
+import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.constant.Extension;
+
+/**
+ * Headless simulation starts here.
+ */
+public final class AppWarcraftHeadless
+{
+    /** Default simulated duration in minutes. */
+    private static final int DEFAULT_MINUTES = 60;
+
+    /**
+     * Main function.
+     * 
+     * @param args The arguments (simulated minutes, recorded orders file, or autosave file followed by simulated
+     *            minutes, optional).
+     */
+    public static void main(String[] args) // CHECKSTYLE IGNORE LINE: TrailingComment|UncommentedMain
+    {
+        EngineHeadless.start(Constant.PROGRAM_NAME, Constant.PROGRAM_VERSION, AppWarcraftHeadless.class);
+        AudioFactory.addFormat(new AudioVoidFormat(Arrays.asList("wav", "xmi")));
+
+        if (args.length > 0 && args[0].endsWith(Extension.REPLAY))
+        {
+            Loader.start(Config.windowed(Constant.NATIVE), Replay.class, Medias.create(args[0]));
+            return;
+        }
+
+        if (args.length > 0 && args[0].endsWith(Extension.SAVE))
+        {
+            final Integer minutes = getMinutes(args, 1);
+            Loader.start(Config.windowed(Constant.NATIVE), Simulation.class, minutes, Medias.create(args[0]));
+            return;
+        }
+        Loader.start(Config.windowed(Constant.NATIVE), Simulation.class, getMinutes(args, 0));
+    }
+
+    /**
+     * Get the simulated minutes argument.
+     * 
+     * @param args The arguments.
+     * @param index The minutes argument index.
+     * @return The simulated minutes, default if not provided.
+     */
+    private static Integer getMinutes(String[] args, int index)
+    {
+        if (args.length > index)
+        {
+            return Integer.valueOf(args[index]);
+        }
+        return Integer.valueOf(DEFAULT_MINUTES);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private AppWarcraftHeadless()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -18,6 +18,7 @@ package com.b3dgs.warcraft;
 
 import com.b3dgs.lionengine.Config;
 import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.Resolution;
 import com.b3dgs.lionengine.audio.AudioFactory;
 import com.b3dgs.lionengine.audio.adlmidi.AdlMidiFormat;
@@ -25,6 +26,7 @@ import com.b3dgs.lionengine.audio.wav.WavFormat;
 import com.b3dgs.lionengine.awt.graphic.EngineAwt;
 import com.b3dgs.lionengine.graphic.engine.Loader;
 import com.b3dgs.warcraft.constant.Constant;
+import com.b3dgs.warcraft.constant.Extension;
 
 /**
  * Program starts here.
@@ -33,16 +35,30 @@ public final class AppWarcraftPc
 {
     /** Default display. */
     private static final Resolution DEFAULT_RESOLUTION = new Resolution(1280, 720, 60);
+    /** Record player orders argument. */
+    private static final String ARG_RECORD = "--record";
+    /** Default replay speed, in steps per frame. */
+    private static final int DEFAULT_REPLAY_SPEED = 1;
 
     /**
      * Main function.
      * 
-     * @param args The arguments (none).
+     * @param args The arguments ("--record" to record player orders, or recorded orders file followed by replay
+     *            speed, optional).
      */
     public static void main(String[] args) // CHECKSTYLE IGNORE LINE: TrailingComment|UncommentedMain
     {
         EngineAwt.start(Constant.PROGRAM_NAME, Constant.PROGRAM_VERSION, AppWarcraftPc.class);
-        Loader.start(Config.windowed(DEFAULT_RESOLUTION), Loading.class);
+        if (args.length > 0 && args[0].endsWith(Extension.REPLAY))
+        {
+            final Integer speed = args.length > 1 ? Integer.valueOf(args[1]) : Integer.valueOf(DEFAULT_REPLAY_SPEED);
+            Loader.start(Config.windowed(DEFAULT_RESOLUTION), Replay.class, Medias.create(args[0]), speed);
+        }
+        else
+        {
+            final Boolean record = Boolean.valueOf(args.length > 0 && ARG_RECORD.equals(args[0]));
+            Loader.start(Config.windowed(DEFAULT_RESOLUTION), Loading.class, record);
+        }
         AudioFactory.addFormat(new WavFormat());
         AudioFactory.addFormat(new AdlMidiFormat());
         AdlMidiFormat.setDefaultBank(Constant.SOUND_BANK_ID);